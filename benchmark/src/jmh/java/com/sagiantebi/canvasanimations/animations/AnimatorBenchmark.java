@@ -0,0 +1,92 @@
+/*
+ * AnimatorBenchmark.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
+import com.sagiantebi.canvasanimations.layout.CanvasAnimationFrameLayout;
+import com.sagiantebi.canvasanimations.layout.CanvasLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Creating, starting and ending the animator of a run.<br/>
+ * {@link #createByName()} is the animator as created before the step property - the setter resolved by reflection and a new animator per run,
+ * {@link #createWithProperty()} creates it through {@link CanvasLayout#ANIMATION_STEP_PROPERTY} and the reuse benchmarks obtain the animator of the layout.
+ * <p>
+ * These are stub comparisons - the animators are the module's stand-ins, not the framework's. The stand-in {@code ObjectAnimator} resolves
+ * the setter with a reflective lookup cached per class, an imitation of {@code PropertyValuesHolder}, and has none of the framework's
+ * {@code AnimationHandler} or choreographer work. The results rank the approaches against each other, they are not framework timings.
+ */
+@State(Scope.Thread)
+public class AnimatorBenchmark {
+
+    private CanvasAnimation mAnimation;
+    private CanvasAnimationFrameLayout mLayout;
+    private final Animator.AnimatorListener mListener = new AnimatorListenerAdapter() {
+
+    };
+
+    @Setup
+    public void setup() {
+        mAnimation = new FoldAnimation();
+        mLayout = BenchmarkAnimations.createLayout(mAnimation, "1080x1920");
+    }
+
+    /**
+     * A stub comparison, see the class documentation - the reflective lookup is the stand-in's imitation of the framework's
+     * @return the animator
+     */
+    @Benchmark
+    public Animator createByName() {
+        ObjectAnimator animator = ObjectAnimator.ofFloat(mLayout, CanvasLayout.ANIMATION_STEP, 0f, 1f);
+        animator.addListener(mListener);
+        animator.start();
+        animator.end();
+        return animator;
+    }
+
+    @Benchmark
+    public Animator createWithProperty() {
+        ObjectAnimator animator = ObjectAnimator.ofFloat((CanvasLayout) mLayout, CanvasLayout.ANIMATION_STEP_PROPERTY, 0f, 1f);
+        animator.addListener(mListener);
+        animator.start();
+        animator.end();
+        return animator;
+    }
+
+    @Benchmark
+    public Animator reuse() {
+        Animator animator = mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+        animator.start();
+        animator.end();
+        return animator;
+    }
+
+    @Benchmark
+    public Animator reuseCancelled() {
+        Animator animator = mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+        animator.start();
+        animator.cancel();
+        return animator;
+    }
+}
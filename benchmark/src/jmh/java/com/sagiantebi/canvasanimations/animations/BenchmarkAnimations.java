@@ -0,0 +1,94 @@
+/*
+ * BenchmarkAnimations.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Canvas;
+import com.sagiantebi.canvasanimations.layout.CanvasAnimationFrameLayout;
+
+/**
+ * The animations and layouts shared by the benchmarks
+ */
+final class BenchmarkAnimations {
+
+    /**
+     * The number of frames in a benchmarked run, roughly a 300ms animation at 60 frames per second
+     */
+    final static int FRAMES = 18;
+
+    private BenchmarkAnimations() {
+
+    }
+
+    /**
+     * Creates an animation by the name used in the benchmark parameters
+     * @param name the name of the animation
+     * @param segments the number of segments, used by the segmented animations only
+     * @return the animation
+     */
+    static CanvasAnimation create(String name, int segments) {
+        if ("fold".equals(name)) {
+            return new FoldAnimation(segments);
+        } else if ("shades".equals(name)) {
+            return new ShadesAnimation(segments);
+        } else if ("reveal".equals(name)) {
+            return new RevealAnimation();
+        } else if ("revealFromTop".equals(name)) {
+            return new RevealFromTopAnimation();
+        } else if ("revealFromBottom".equals(name)) {
+            return new RevealFromBottomAnimation();
+        } else if ("revealFromCenter".equals(name)) {
+            return new RevealFromCenterAnimation();
+        } else if ("circularReveal".equals(name)) {
+            return new CircularRevealAnimation();
+        } else if ("iris".equals(name)) {
+            return new IrisAnimation();
+        } else if ("diagonalWipe".equals(name)) {
+            return new DiagonalWipeAnimation();
+        }
+        throw new IllegalArgumentException("Unknown animation " + name);
+    }
+
+    /**
+     * Creates a running layout of the supplied size with the animation loaded, drawn once like the first frame of a run
+     * @param animation the animation to load
+     * @param size the size of the layout as width x height, i.e. 1080x1920
+     * @return the layout
+     */
+    static CanvasAnimationFrameLayout createLayout(CanvasAnimation animation, String size) {
+        int separator = size.indexOf('x');
+        int width = Integer.parseInt(size.substring(0, separator));
+        int height = Integer.parseInt(size.substring(separator + 1));
+        CanvasAnimationFrameLayout layout = new CanvasAnimationFrameLayout(null);
+        layout.layout(0, 0, width, height);
+        layout.loadAnimation(animation);
+        layout.getAnimationState().setRunning(true);
+        layout.setAnimationStep(0f);
+        layout.draw(new Canvas());
+        return layout;
+    }
+
+    /**
+     * Returns the step of a frame in a run of {@link #FRAMES}, both ends excluded since they skip the segment drawing
+     * @param frame the frame, wrapped around the run
+     * @return the step
+     */
+    static float step(int frame) {
+        return ((frame % FRAMES) + 0.5f) / FRAMES;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * DirtyRegionBenchmark.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Rect;
+import com.sagiantebi.canvasanimations.layout.CanvasAnimationFrameLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The step to dirty region path - {@link CanvasAnimation#computeDirtyRegion(float, float, int, int, Rect)} alone,
+ * and {@link CanvasAnimationFrameLayout#setAnimationStep(float)} up to the view invalidation, as invoked by the animator on every frame
+ */
+@State(Scope.Thread)
+public class DirtyRegionBenchmark {
+
+    @Param({"reveal", "revealFromTop", "revealFromBottom", "revealFromCenter", "circularReveal", "fold", "shades"})
+    public String animation;
+
+    @Param({"720x1280", "1080x1920"})
+    public String size;
+
+    private CanvasAnimation mAnimation;
+    private CanvasAnimationFrameLayout mLayout;
+    private final Rect mRegion = new Rect();
+    private int mFrame = 0;
+
+    @Setup
+    public void setup() {
+        mAnimation = BenchmarkAnimations.create(animation, 4);
+        mLayout = BenchmarkAnimations.createLayout(mAnimation, size);
+    }
+
+    @Benchmark
+    public int computeDirtyRegion() {
+        float from = BenchmarkAnimations.step(mFrame);
+        float to = BenchmarkAnimations.step(++mFrame);
+        mAnimation.computeDirtyRegion(from, to, mLayout.getWidth(), mLayout.getHeight(), mRegion);
+        return mRegion.bottom;
+    }
+
+    @Benchmark
+    public int setAnimationStep() {
+        mLayout.setAnimationStep(BenchmarkAnimations.step(mFrame++));
+        return mLayout.getInvalidateCount();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * FirstFrameBenchmark.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Canvas;
+import com.sagiantebi.canvasanimations.layout.CanvasAnimationFrameLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The first frame of a run on a new layout against a steady state frame, with and without {@link CanvasAnimation#prepare(com.sagiantebi.canvasanimations.layout.CanvasLayout)}.<br/>
+ * Every invocation sets up a new run, so both frames pay the same setup overhead and only their difference is meaningful.
+ * The stand-in canvas and bitmaps do no pixel work, so this is the library's share of the first frame rather than its latency on a device.
+ */
+@State(Scope.Thread)
+public class FirstFrameBenchmark {
+
+    @Param({"first", "steady"})
+    public String frame;
+
+    @Param({"false", "true"})
+    public boolean prepared;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    @Param({"4", "16"})
+    public int segments;
+
+    private CanvasAnimation mAnimation;
+    private CanvasAnimationFrameLayout mLayout;
+    private final Canvas mCanvas = new Canvas();
+
+    @Setup(Level.Invocation)
+    public void setupRun() {
+        //a new animation and layout, so the first frame finds every cache cold.
+        mAnimation = new FoldAnimation(segments);
+        mAnimation.setSnapshotEnabled(snapshot);
+        mLayout = new CanvasAnimationFrameLayout(null);
+        mLayout.layout(0, 0, 1080, 1920);
+        mLayout.loadAnimation(mAnimation);
+        if (prepared) {
+            mAnimation.prepare(mLayout);
+        }
+        mLayout.getAnimationState().setRunning(true);
+        if ("steady".equals(frame)) {
+            mAnimation.draw(mLayout, mCanvas, 0.25f);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void endRun() {
+        //a stopped frame returns the snapshot to the pool, like the end of a run.
+        mLayout.getAnimationState().setRunning(false);
+        mAnimation.draw(mLayout, mCanvas, 1f);
+    }
+
+    @Benchmark
+    public int drawFrame() {
+        mAnimation.draw(mLayout, mCanvas, 0.5f);
+        return mCanvas.getSaveCount();
+    }
+}
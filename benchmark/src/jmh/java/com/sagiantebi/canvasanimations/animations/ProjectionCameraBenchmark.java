@@ -0,0 +1,66 @@
+/*
+ * ProjectionCameraBenchmark.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Matrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The cost of a single segment matrix, computed by {@link ProjectionCamera} as {@link SegmentedAnimation} does for every segment of a frame
+ */
+@State(Scope.Thread)
+public class ProjectionCameraBenchmark {
+
+    private final ProjectionCamera mCamera = new ProjectionCamera();
+    private final float[] mValues = new float[9];
+    private int mFrame = 0;
+
+    @Setup
+    public void setup() {
+        mCamera.setLocation(0, 0, -18);
+    }
+
+    @Benchmark
+    public float segmentValues() {
+        float step = BenchmarkAnimations.step(mFrame++);
+        mCamera.reset();
+        mCamera.rotateX(-89f * (1f - step));
+        mCamera.getValues(mValues, 540f, 960f);
+        return mValues[Matrix.MPERSP_1];
+    }
+
+    @Benchmark
+    public float combinedRotation() {
+        float step = BenchmarkAnimations.step(mFrame++);
+        mCamera.reset();
+        mCamera.rotateX(-89f * (1f - step));
+        mCamera.rotateY(45f * step);
+        mCamera.rotateZ(10f * step);
+        mCamera.getValues(mValues);
+        return mValues[Matrix.MPERSP_1];
+    }
+
+    @Benchmark
+    public float mapY() {
+        return ProjectionCamera.mapY(mValues, 540f, BenchmarkAnimations.step(mFrame++) * 1920f);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * RevealDrawBenchmark.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Canvas;
+import com.sagiantebi.canvasanimations.layout.CanvasAnimationFrameLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A frame of the rectangular and path reveals across layout sizes
+ */
+@State(Scope.Thread)
+public class RevealDrawBenchmark {
+
+    @Param({"reveal", "revealFromTop", "revealFromBottom", "revealFromCenter", "circularReveal", "iris", "diagonalWipe"})
+    public String animation;
+
+    @Param({"720x1280", "1080x1920"})
+    public String size;
+
+    private CanvasAnimation mAnimation;
+    private CanvasAnimationFrameLayout mLayout;
+    private final Canvas mCanvas = new Canvas();
+    private int mFrame = 0;
+
+    @Setup
+    public void setup() {
+        mAnimation = BenchmarkAnimations.create(animation, 1);
+        mLayout = BenchmarkAnimations.createLayout(mAnimation, size);
+    }
+
+    @Benchmark
+    public int drawFrame() {
+        mAnimation.draw(mLayout, mCanvas, BenchmarkAnimations.step(mFrame++));
+        return mCanvas.getSaveCount();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * SegmentTransformTableBenchmark.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Matrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Building a {@link SegmentTransformTable} and a frame of lookups, against computing the frame's matrices directly
+ */
+@State(Scope.Thread)
+public class SegmentTransformTableBenchmark {
+
+    private final static int WIDTH = 1080;
+    private final static int HEIGHT = 1920;
+
+    @Param({"1", "4", "16", "64"})
+    public int segments;
+
+    private final ProjectionCamera mCamera = new ProjectionCamera();
+    private final float[] mValues = new float[9];
+    private final SegmentTransformTable mTable = new SegmentTransformTable();
+    private int mFrame = 0;
+
+    /**
+     * The matrices of a vertical fold, as computed by {@link SegmentedAnimation#computeSegmentValues(ProjectionCamera, float, float, float, int, int, float[])}
+     */
+    private final SegmentTransformTable.TransformSource mSource = new SegmentTransformTable.TransformSource() {
+        @Override
+        public void computeSegmentTransform(int segment, int segments, float segmentStep, int width, int height, float[] outValues) {
+            float end = (segment + 1) * ((float) height / segments);
+            mCamera.reset();
+            mCamera.rotateX(-89f * (1f - segmentStep));
+            mCamera.getValues(outValues, width / 2f, end);
+        }
+    };
+
+    @Setup
+    public void setup() {
+        mCamera.setLocation(0, 0, -18);
+        mTable.build(mSource, segments, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    public boolean build() {
+        mTable.build(mSource, segments, WIDTH, HEIGHT);
+        return mTable.isValid(segments, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    public float lookupFrame() {
+        float step = BenchmarkAnimations.step(mFrame++);
+        float sum = 0f;
+        for (int i = 0; i < segments; i++) {
+            mTable.lookup(i, step, mValues);
+            sum += mValues[Matrix.MPERSP_1];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float computeFrame() {
+        float step = BenchmarkAnimations.step(mFrame++);
+        float sum = 0f;
+        for (int i = 0; i < segments; i++) {
+            mSource.computeSegmentTransform(i, segments, step, WIDTH, HEIGHT, mValues);
+            sum += mValues[Matrix.MPERSP_1];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Animator.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.animation;
+
+import java.util.ArrayList;
+
+/**
+ * Benchmark stand-in for the framework class. Animators run synchronously - {@link #start()} applies the first value and {@link #end()} the last,
+ * the listeners are notified in place rather than over a copy so the stand-in allocates nothing of its own.
+ */
+public abstract class Animator {
+
+    private ArrayList<AnimatorListener> mListeners;
+    private boolean mStarted = false;
+
+    public interface AnimatorListener {
+
+        void onAnimationStart(Animator animation);
+
+        void onAnimationEnd(Animator animation);
+
+        void onAnimationCancel(Animator animation);
+
+        void onAnimationRepeat(Animator animation);
+    }
+
+    public abstract Animator setDuration(long duration);
+
+    public abstract void setStartDelay(long startDelay);
+
+    public abstract void setInterpolator(TimeInterpolator value);
+
+    public void start() {
+        if (mStarted) {
+            return;
+        }
+        mStarted = true;
+        if (mListeners != null) {
+            for (int i = 0; i < mListeners.size(); i++) {
+                mListeners.get(i).onAnimationStart(this);
+            }
+        }
+    }
+
+    public void cancel() {
+        if (!mStarted) {
+            return;
+        }
+        if (mListeners != null) {
+            for (int i = 0; i < mListeners.size(); i++) {
+                mListeners.get(i).onAnimationCancel(this);
+            }
+        }
+        end();
+    }
+
+    public void end() {
+        if (!mStarted) {
+            start();
+        }
+        mStarted = false;
+        if (mListeners != null) {
+            for (int i = 0; i < mListeners.size(); i++) {
+                mListeners.get(i).onAnimationEnd(this);
+            }
+        }
+    }
+
+    public boolean isStarted() {
+        return mStarted;
+    }
+
+    public void addListener(AnimatorListener listener) {
+        if (mListeners == null) {
+            mListeners = new ArrayList<AnimatorListener>();
+        }
+        mListeners.add(listener);
+    }
+
+    public void removeListener(AnimatorListener listener) {
+        if (mListeners != null) {
+            mListeners.remove(listener);
+        }
+    }
+
+    public ArrayList<AnimatorListener> getListeners() {
+        return mListeners;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * ObjectAnimator.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.animation;
+
+import android.util.FloatProperty;
+import android.util.Property;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+
+/**
+ * Benchmark stand-in for the framework class. Properties named by a string are resolved like the framework's PropertyValuesHolder -
+ * the setter is looked up by reflection when the animator starts, cached per target class, and invoked with a boxed value.
+ */
+public final class ObjectAnimator extends ValueAnimator {
+
+    private final static HashMap<Class<?>, HashMap<String, Method>> sSetters = new HashMap<Class<?>, HashMap<String, Method>>();
+
+    private Object mTarget;
+    private Property<Object, Float> mProperty;
+    private String mPropertyName;
+    private Method mSetter;
+    private final Object[] mSetterArguments = new Object[1];
+
+    @SuppressWarnings("unchecked")
+    public static <T> ObjectAnimator ofFloat(T target, Property<T, Float> property, float... values) {
+        ObjectAnimator animator = new ObjectAnimator();
+        animator.mTarget = target;
+        animator.mProperty = (Property<Object, Float>) property;
+        animator.setFloatValues(values);
+        return animator;
+    }
+
+    public static ObjectAnimator ofFloat(Object target, String propertyName, float... values) {
+        ObjectAnimator animator = new ObjectAnimator();
+        animator.mTarget = target;
+        animator.mPropertyName = propertyName;
+        animator.setFloatValues(values);
+        return animator;
+    }
+
+    @Override
+    public void start() {
+        if (mProperty == null && mSetter == null) {
+            mSetter = findSetter(mTarget.getClass(), mPropertyName);
+        }
+        super.start();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void animateValue(float fraction) {
+        super.animateValue(fraction);
+        float value = getAnimatedFloatValue();
+        if (mProperty instanceof FloatProperty) {
+            ((FloatProperty<Object>) mProperty).setValue(mTarget, value);
+        } else if (mProperty != null) {
+            mProperty.set(mTarget, value);
+        } else {
+            mSetterArguments[0] = value;
+            try {
+                mSetter.invoke(mTarget, mSetterArguments);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private static Method findSetter(Class<?> targetClass, String propertyName) {
+        synchronized (sSetters) {
+            HashMap<String, Method> setters = sSetters.get(targetClass);
+            if (setters == null) {
+                setters = new HashMap<String, Method>();
+                sSetters.put(targetClass, setters);
+            }
+            Method setter = setters.get(propertyName);
+            if (setter == null) {
+                String name = "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+                try {
+                    setter = targetClass.getMethod(name, float.class);
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalArgumentException("No setter " + name + " on " + targetClass, e);
+                }
+                setters.put(propertyName, setter);
+            }
+            return setter;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * ValueAnimator.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.animation;
+
+/**
+ * Benchmark stand-in for the framework class
+ */
+public class ValueAnimator extends Animator {
+
+    public final static int RESTART = 1;
+    public final static int REVERSE = 2;
+
+    private long mDuration = 300;
+    private long mStartDelay = 0;
+    private TimeInterpolator mInterpolator;
+    private int mRepeatCount = 0;
+    private int mRepeatMode = RESTART;
+    private float[] mValues;
+    private float mFraction;
+    private float mAnimatedValue;
+
+    public void setFloatValues(float... values) {
+        mValues = values;
+    }
+
+    @Override
+    public ValueAnimator setDuration(long duration) {
+        mDuration = duration;
+        return this;
+    }
+
+    public long getDuration() {
+        return mDuration;
+    }
+
+    @Override
+    public void setStartDelay(long startDelay) {
+        mStartDelay = startDelay;
+    }
+
+    @Override
+    public void setInterpolator(TimeInterpolator value) {
+        mInterpolator = value;
+    }
+
+    public void setRepeatCount(int value) {
+        mRepeatCount = value;
+    }
+
+    public void setRepeatMode(int value) {
+        mRepeatMode = value;
+    }
+
+    public void removeAllUpdateListeners() {
+
+    }
+
+    public float getAnimatedFraction() {
+        return mFraction;
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        animateValue(0f);
+    }
+
+    @Override
+    public void end() {
+        if (!isStarted()) {
+            start();
+        }
+        animateValue(1f);
+        super.end();
+    }
+
+    void animateValue(float fraction) {
+        mFraction = fraction;
+        float interpolated = mInterpolator != null ? mInterpolator.getInterpolation(fraction) : fraction;
+        mAnimatedValue = mValues[0] + (mValues[mValues.length - 1] - mValues[0]) * interpolated;
+    }
+
+    float getAnimatedFloatValue() {
+        return mAnimatedValue;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Bitmap.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.graphics;
+
+/**
+ * Benchmark stand-in for the framework class. Holds no pixels, only the dimensions the library reads.
+ */
+public final class Bitmap {
+
+    public enum Config {
+        ALPHA_8, RGB_565, ARGB_4444, ARGB_8888, HARDWARE
+    }
+
+    private final int mWidth;
+    private final int mHeight;
+    private final Config mConfig;
+    private boolean mRecycled = false;
+
+    private Bitmap(int width, int height, Config config) {
+        mWidth = width;
+        mHeight = height;
+        mConfig = config;
+    }
+
+    public static Bitmap createBitmap(int width, int height, Config config) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width and height must be > 0");
+        }
+        return new Bitmap(width, height, config);
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    public Config getConfig() {
+        return mConfig;
+    }
+
+    public boolean isMutable() {
+        return mConfig != Config.HARDWARE;
+    }
+
+    public boolean isRecycled() {
+        return mRecycled;
+    }
+
+    public void recycle() {
+        mRecycled = true;
+    }
+
+    public void eraseColor(int color) {
+
+    }
+
+    public int getByteCount() {
+        return mWidth * mHeight * (mConfig == Config.ARGB_8888 ? 4 : 2);
+    }
+
+    public int getAllocationByteCount() {
+        return getByteCount();
+    }
+}
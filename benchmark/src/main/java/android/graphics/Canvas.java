@@ -0,0 +1,147 @@
+/*
+ * Canvas.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.graphics;
+
+/**
+ * Benchmark stand-in for the framework class. Draws nothing and tracks only the save count, so the benchmarks measure the library's own work.
+ */
+public class Canvas {
+
+    public enum EdgeType {
+        BW, AA
+    }
+
+    private Bitmap mBitmap;
+    private int mSaveCount = 1;
+
+    public Canvas() {
+
+    }
+
+    public Canvas(Bitmap bitmap) {
+        mBitmap = bitmap;
+    }
+
+    public void setBitmap(Bitmap bitmap) {
+        mBitmap = bitmap;
+    }
+
+    public boolean isHardwareAccelerated() {
+        return false;
+    }
+
+    public int getWidth() {
+        return mBitmap != null ? mBitmap.getWidth() : 0;
+    }
+
+    public int getHeight() {
+        return mBitmap != null ? mBitmap.getHeight() : 0;
+    }
+
+    public int save() {
+        return mSaveCount++;
+    }
+
+    public void restore() {
+        if (mSaveCount <= 1) {
+            throw new IllegalStateException("Underflow in restore");
+        }
+        mSaveCount--;
+    }
+
+    public int getSaveCount() {
+        return mSaveCount;
+    }
+
+    public void restoreToCount(int saveCount) {
+        if (saveCount < 1 || saveCount > mSaveCount) {
+            throw new IllegalArgumentException("Underflow in restoreToCount");
+        }
+        mSaveCount = saveCount;
+    }
+
+    public void translate(float dx, float dy) {
+
+    }
+
+    public void concat(Matrix matrix) {
+
+    }
+
+    public boolean clipRect(Rect rect) {
+        return !rect.isEmpty();
+    }
+
+    public boolean clipRect(RectF rect) {
+        return !rect.isEmpty();
+    }
+
+    public boolean clipRect(float left, float top, float right, float bottom) {
+        return left < right && top < bottom;
+    }
+
+    public boolean clipRect(int left, int top, int right, int bottom) {
+        return left < right && top < bottom;
+    }
+
+    public boolean clipPath(Path path) {
+        return !path.isEmpty();
+    }
+
+    public boolean quickReject(float left, float top, float right, float bottom, EdgeType type) {
+        return false;
+    }
+
+    public boolean getClipBounds(Rect bounds) {
+        bounds.set(0, 0, getWidth(), getHeight());
+        return !bounds.isEmpty();
+    }
+
+    public void drawColor(int color) {
+
+    }
+
+    public void drawColor(int color, PorterDuff.Mode mode) {
+
+    }
+
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+
+    }
+
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+
+    }
+
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+
+    }
+
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+
+    }
+
+    public void drawPicture(Picture picture) {
+
+    }
+
+    public void drawRenderNode(RenderNode renderNode) {
+
+    }
+}
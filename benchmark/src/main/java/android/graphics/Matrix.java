@@ -0,0 +1,57 @@
+/*
+ * Matrix.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.graphics;
+
+/**
+ * Benchmark stand-in for the framework class, stores the values without the native matrix
+ */
+public class Matrix {
+
+    public final static int MSCALE_X = 0;
+    public final static int MSKEW_X = 1;
+    public final static int MTRANS_X = 2;
+    public final static int MSKEW_Y = 3;
+    public final static int MSCALE_Y = 4;
+    public final static int MTRANS_Y = 5;
+    public final static int MPERSP_0 = 6;
+    public final static int MPERSP_1 = 7;
+    public final static int MPERSP_2 = 8;
+
+    private final float[] mValues = {1f, 0f, 0f, 0f, 1f, 0f, 0f, 0f, 1f};
+
+    public void reset() {
+        mValues[MSCALE_X] = 1f;
+        mValues[MSKEW_X] = 0f;
+        mValues[MTRANS_X] = 0f;
+        mValues[MSKEW_Y] = 0f;
+        mValues[MSCALE_Y] = 1f;
+        mValues[MTRANS_Y] = 0f;
+        mValues[MPERSP_0] = 0f;
+        mValues[MPERSP_1] = 0f;
+        mValues[MPERSP_2] = 1f;
+    }
+
+    public void setValues(float[] values) {
+        System.arraycopy(values, 0, mValues, 0, 9);
+    }
+
+    public void getValues(float[] values) {
+        System.arraycopy(mValues, 0, values, 0, 9);
+    }
+}
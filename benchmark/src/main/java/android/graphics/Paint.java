@@ -0,0 +1,42 @@
+/*
+ * Paint.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.graphics;
+
+/**
+ * Benchmark stand-in for the framework class
+ */
+public class Paint {
+
+    public final static int ANTI_ALIAS_FLAG = 0x01;
+    public final static int FILTER_BITMAP_FLAG = 0x02;
+
+    private int mFlags;
+
+    public Paint() {
+        this(0);
+    }
+
+    public Paint(int flags) {
+        mFlags = flags;
+    }
+
+    public int getFlags() {
+        return mFlags;
+    }
+}
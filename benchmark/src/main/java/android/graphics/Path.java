@@ -0,0 +1,59 @@
+/*
+ * Path.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.graphics;
+
+/**
+ * Benchmark stand-in for the framework class. Keeps the number of verbs so building a path is not optimized away.
+ */
+public class Path {
+
+    public enum Direction {
+        CW, CCW
+    }
+
+    private int mVerbs = 0;
+
+    public void reset() {
+        mVerbs = 0;
+    }
+
+    public void rewind() {
+        mVerbs = 0;
+    }
+
+    public void moveTo(float x, float y) {
+        mVerbs++;
+    }
+
+    public void lineTo(float x, float y) {
+        mVerbs++;
+    }
+
+    public void close() {
+        mVerbs++;
+    }
+
+    public void addCircle(float x, float y, float radius, Direction dir) {
+        mVerbs += 6;
+    }
+
+    public boolean isEmpty() {
+        return mVerbs == 0;
+    }
+}
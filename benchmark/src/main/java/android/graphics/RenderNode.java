@@ -0,0 +1,47 @@
+/*
+ * RenderNode.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.graphics;
+
+/**
+ * Benchmark stand-in for the framework class
+ */
+public final class RenderNode {
+
+    private final Canvas mCanvas = new Canvas();
+
+    public RenderNode(String name) {
+
+    }
+
+    public boolean setPosition(int left, int top, int right, int bottom) {
+        return true;
+    }
+
+    public Canvas beginRecording(int width, int height) {
+        return mCanvas;
+    }
+
+    public void endRecording() {
+
+    }
+
+    public void discardDisplayList() {
+
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Build.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.os;
+
+/**
+ * Benchmark stand-in for the framework class
+ */
+public class Build {
+
+    public static class VERSION {
+        /**
+         * Read at runtime as on a device, so the version checks are not folded by the compiler. Defaults to API 29, override with {@code -Dandroid.sdk}.
+         */
+        public final static int SDK_INT = Integer.getInteger("android.sdk", 29);
+    }
+
+    public static class VERSION_CODES {
+        public final static int JELLY_BEAN = 16;
+        public final static int JELLY_BEAN_MR2 = 18;
+        public final static int KITKAT = 19;
+        public final static int LOLLIPOP = 21;
+        public final static int N = 24;
+        public final static int O = 26;
+        public final static int Q = 29;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Property.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.util;
+
+/**
+ * Benchmark stand-in for the framework class
+ */
+public abstract class Property<T, V> {
+
+    private final String mName;
+    private final Class<V> mType;
+
+    public Property(Class<V> type, String name) {
+        mName = name;
+        mType = type;
+    }
+
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    public void set(T object, V value) {
+        throw new UnsupportedOperationException("Property " + getName() + " is read-only");
+    }
+
+    public abstract V get(T object);
+
+    public String getName() {
+        return mName;
+    }
+
+    public Class<V> getType() {
+        return mType;
+    }
+}
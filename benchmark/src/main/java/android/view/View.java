@@ -0,0 +1,145 @@
+/*
+ * View.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+
+/**
+ * Benchmark stand-in for the framework class. Keeps the bounds and counts invalidations, posted runnables are dropped.
+ */
+public class View {
+
+    private int mLeft;
+    private int mTop;
+    private int mRight;
+    private int mBottom;
+    private int mInvalidateCount = 0;
+    private final Rect mInvalidated = new Rect();
+
+    public View(Context context) {
+
+    }
+
+    public View(Context context, AttributeSet attrs) {
+
+    }
+
+    public View(Context context, AttributeSet attrs, int defStyleAttr) {
+
+    }
+
+    public View(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+
+    }
+
+    public final int getWidth() {
+        return mRight - mLeft;
+    }
+
+    public final int getHeight() {
+        return mBottom - mTop;
+    }
+
+    public final int getScrollX() {
+        return 0;
+    }
+
+    public final int getScrollY() {
+        return 0;
+    }
+
+    /**
+     * Positions the view, reporting a size change as the framework does
+     */
+    public void layout(int l, int t, int r, int b) {
+        int oldWidth = getWidth();
+        int oldHeight = getHeight();
+        mLeft = l;
+        mTop = t;
+        mRight = r;
+        mBottom = b;
+        if (oldWidth != getWidth() || oldHeight != getHeight()) {
+            onSizeChanged(getWidth(), getHeight(), oldWidth, oldHeight);
+        }
+    }
+
+    public void draw(Canvas canvas) {
+        dispatchDraw(canvas);
+    }
+
+    protected void dispatchDraw(Canvas canvas) {
+
+    }
+
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+
+    }
+
+    protected void onDetachedFromWindow() {
+
+    }
+
+    public void invalidate() {
+        mInvalidateCount++;
+        mInvalidated.set(0, 0, getWidth(), getHeight());
+    }
+
+    @Deprecated
+    public void invalidate(Rect dirty) {
+        mInvalidateCount++;
+        mInvalidated.set(dirty);
+    }
+
+    public void postInvalidate() {
+
+    }
+
+    public void postInvalidateOnAnimation() {
+
+    }
+
+    public boolean post(Runnable action) {
+        return true;
+    }
+
+    public void postOnAnimation(Runnable action) {
+
+    }
+
+    public boolean removeCallbacks(Runnable action) {
+        return true;
+    }
+
+    /**
+     * Getter for the number of invalidations, read by the benchmarks so the invalidation path is not optimized away
+     */
+    public int getInvalidateCount() {
+        return mInvalidateCount;
+    }
+
+    /**
+     * Getter for the region of the last invalidation
+     */
+    public Rect getInvalidatedRegion() {
+        return mInvalidated;
+    }
+}
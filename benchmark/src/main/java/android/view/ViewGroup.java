@@ -0,0 +1,60 @@
+/*
+ * ViewGroup.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+
+/**
+ * Benchmark stand-in for the framework class, without children
+ */
+public abstract class ViewGroup extends View implements ViewParent {
+
+    public ViewGroup(Context context) {
+        super(context);
+    }
+
+    public ViewGroup(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    public ViewGroup(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+
+    public ViewGroup(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+    }
+
+    @Override
+    @Deprecated
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        return null;
+    }
+
+    @Override
+    public void onDescendantInvalidated(View child, View target) {
+
+    }
+
+    public final void offsetDescendantRectToMyCoords(View descendant, Rect rect) {
+
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Allocations.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated by the current thread, using the per thread allocation counters of HotSpot.
+ */
+final class Allocations {
+
+    private Allocations() {
+
+    }
+
+    /**
+     * Checks whether the running JVM counts the allocations of every thread, tests should be skipped otherwise
+     * @return true when {@link #measure(Runnable, int)} can be used
+     */
+    static boolean isSupported() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return false;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * The number of measured rounds, see {@link #measure(Runnable, int)}
+     */
+    private final static int ROUNDS = 5;
+
+    /**
+     * Runs a task to let it set up any lazily allocated storage, then returns the bytes allocated by running it repeatedly.<br/>
+     * The runtime occasionally allocates on its own while the call sites settle, so the least of a few rounds is returned -
+     * an allocation made by the task shows up in every round.
+     * @param task the task to measure
+     * @param iterations the number of runs in a round
+     * @return the bytes allocated by a round, excluding the cost of the measurement itself
+     */
+    static long measure(Runnable task, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        //the counter query may allocate on its own, measure it over an empty interval.
+        long before = threads.getThreadAllocatedBytes(id);
+        long overhead = threads.getThreadAllocatedBytes(id) - before;
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && least > 0; round++) {
+            before = threads.getThreadAllocatedBytes(id);
+            for (int i = 0; i < iterations; i++) {
+                task.run();
+            }
+            least = Math.min(least, Math.max(0, threads.getThreadAllocatedBytes(id) - before - overhead));
+        }
+        return least;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * AnimatorAllocationTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.animation.Animator;
+import com.sagiantebi.canvasanimations.layout.CanvasAnimationFrameLayout;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that running the reused animator allocates nothing. The stand-in animators allocate nothing of their own,
+ * so what is measured is the library's part of every start, end and cancel.
+ * <p>
+ * This proves the library's share only, against the stand-ins - not that a run allocates nothing on a device:
+ * <ul>
+ * <li>The stand-in {@code Handler.post} drops the runnable, the framework enqueues a {@code Message} for the posted end of every run.</li>
+ * <li>Every run here uses the same start and end, which skips {@code setFloatValues}. On the framework, changing them
+ * builds new keyframes in the animator's {@code PropertyValuesHolder}.</li>
+ * <li>The framework's {@code AnimationHandler} and choreographer work is not modelled at all.</li>
+ * </ul>
+ */
+public class AnimatorAllocationTest {
+
+    private final static int ITERATIONS = 1000;
+
+    private CanvasAnimation mAnimation;
+    private CanvasAnimationFrameLayout mLayout;
+
+    @Before
+    public void setUp() {
+        mAnimation = new FoldAnimation();
+        mLayout = new CanvasAnimationFrameLayout(null);
+        mLayout.layout(0, 0, 1080, 1920);
+        mLayout.loadAnimation(mAnimation);
+    }
+
+    @Test
+    public void animatorIsReused() {
+        Animator animator = mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+        animator.start();
+        animator.end();
+        assertSame(animator, mAnimation.newAnimatorInstance(mLayout, 0f, 1f));
+        animator.start();
+        animator.cancel();
+        assertSame(animator, mAnimation.newAnimatorInstance(mLayout, 1f, 0f));
+        assertEquals(1, animator.getListeners().size());
+    }
+
+    @Test
+    public void endedRunsDoNotAllocate() {
+        assertNoAllocations(new Runnable() {
+            @Override
+            public void run() {
+                Animator animator = mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+                animator.start();
+                animator.end();
+            }
+        });
+    }
+
+    @Test
+    public void cancelledRunsDoNotAllocate() {
+        assertNoAllocations(new Runnable() {
+            @Override
+            public void run() {
+                Animator animator = mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+                animator.start();
+                animator.cancel();
+            }
+        });
+    }
+
+    @Test
+    public void restartsDoNotAllocate() {
+        //obtaining the animator while it runs cancels it first.
+        assertNoAllocations(new Runnable() {
+            @Override
+            public void run() {
+                mAnimation.newAnimatorInstance(mLayout, 0f, 1f).start();
+            }
+        });
+        mLayout.getAnimationState().cancelAnimator();
+    }
+
+    private static void assertNoAllocations(Runnable run) {
+        assumeTrue(Allocations.isSupported());
+        assertEquals(0, Allocations.measure(run, ITERATIONS));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * BitmapPoolAllocationTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Bitmap;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that reusing a pooled bitmap allocates nothing, with bitmaps of other sizes pooled alongside it.
+ * The stand-in bitmaps hold no pixels, so what is measured is the pool's own bookkeeping.
+ */
+public class BitmapPoolAllocationTest {
+
+    private final static int ITERATIONS = 1000;
+    private final static int SIZE = 64;
+    /**
+     * The number of other sizes pooled, every one in its own bucket
+     */
+    private final static int OTHER_SIZES = 32;
+
+    @After
+    public void tearDown() {
+        BitmapPool.getInstance().clear();
+    }
+
+    @Test
+    public void reusingABitmapDoesNotAllocate() {
+        assumeTrue(Allocations.isSupported());
+        final BitmapPool pool = BitmapPool.getInstance();
+        for (int i = 1; i <= OTHER_SIZES; i++) {
+            pool.put(Bitmap.createBitmap(i, SIZE * 2, Bitmap.Config.ARGB_8888));
+        }
+        pool.put(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+        assertEquals(0, Allocations.measure(new Runnable() {
+            @Override
+            public void run() {
+                pool.put(pool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+            }
+        }, ITERATIONS));
+    }
+}
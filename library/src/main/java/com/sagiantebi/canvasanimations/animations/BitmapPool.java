@@ -0,0 +1,391 @@
+/*
+ * BitmapPool.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A library wide pool of reusable bitmaps, used for animation snapshots and offscreen rendering.<br/>
+ * Bitmaps are bucketed by exact size and config, so a lookup only visits its own bucket, and evicted least recently released first once the pool
+ * exceeds its byte budget.
+ * Call {@link #register(Context)} once so the pool trims itself on memory pressure. The pool is thread safe.<br/>
+ * Custom animations may use it for their own buffers through {@link CanvasAnimation#getBitmapPool()}.
+ */
+public final class BitmapPool implements ComponentCallbacks2 {
+
+    /**
+     * The shared instance
+     */
+    private final static BitmapPool sInstance = new BitmapPool(Runtime.getRuntime().maxMemory() / 8);
+
+    /**
+     * The pooled bitmaps by size and config, every bucket ordered least recently released first
+     */
+    private final HashMap<Key, Bucket> mBuckets = new HashMap<Key, Bucket>();
+    /**
+     * The key of the current lookup, reused so lookups are allocation free
+     */
+    private final Key mLookupKey = new Key();
+    /**
+     * Every pooled bitmap in the order it was released, the eviction order
+     */
+    private Entry mOldest;
+    private Entry mNewest;
+    /**
+     * Entries no longer holding a bitmap, linked by {@link Entry#mNewer} and reused by {@link #put(Bitmap)}
+     */
+    private Entry mFreeEntries;
+
+    /**
+     * The byte budget, and the bytes currently held
+     */
+    private long mMaxBytes;
+    private long mBytes = 0;
+
+    /**
+     * Counters, see the matching getters
+     */
+    private long mHitCount = 0;
+    private long mMissCount = 0;
+    private long mEvictionCount = 0;
+
+    /**
+     * Creates a pool
+     * @param maxBytes the byte budget
+     */
+    private BitmapPool(long maxBytes) {
+        mMaxBytes = maxBytes;
+    }
+
+    /**
+     * Getter for the shared instance
+     * @return the library wide pool
+     */
+    public static BitmapPool getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Registers the pool for memory callbacks, so it trims itself on {@link ComponentCallbacks2#onTrimMemory(int)}
+     * @param context any context, the application context is used
+     */
+    public void register(Context context) {
+        context.getApplicationContext().registerComponentCallbacks(this);
+    }
+
+    /**
+     * Returns a cleared bitmap, reusing a pooled one when possible
+     * @param width the width of the bitmap
+     * @param height the height of the bitmap
+     * @param config the config of the bitmap
+     * @return a mutable and transparent bitmap, owned by the caller until it is handed back by {@link #put(Bitmap)}
+     * @throws OutOfMemoryError if a new bitmap can not be allocated
+     */
+    public Bitmap get(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = null;
+        synchronized (this) {
+            Bucket bucket = mBuckets.get(mLookupKey.set(width, height, config));
+            if (bucket != null && !bucket.mEntries.isEmpty()) {
+                //the most recently released bitmap of the bucket.
+                Entry entry = bucket.mEntries.remove(bucket.mEntries.size() - 1);
+                bitmap = entry.mBitmap;
+                mBytes -= entry.mSize;
+                unlink(entry);
+                recycleEntry(entry);
+            }
+            if (bitmap != null) {
+                mHitCount++;
+            } else {
+                mMissCount++;
+            }
+        }
+        if (bitmap == null) {
+            return Bitmap.createBitmap(width, height, config);
+        }
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    /**
+     * Hands a bitmap to the pool. The caller must not use it afterwards.
+     * @param bitmap the bitmap, immutable or recycled bitmaps are ignored
+     */
+    public void put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        synchronized (this) {
+            long size = sizeOf(bitmap);
+            if (size > mMaxBytes) {
+                return;
+            }
+            Bucket bucket = mBuckets.get(mLookupKey.set(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig()));
+            if (bucket == null) {
+                //a new size or config, its key is kept for later releases.
+                bucket = new Bucket();
+                mBuckets.put(new Key().set(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig()), bucket);
+            }
+            Entry entry = obtainEntry();
+            entry.mBitmap = bitmap;
+            entry.mSize = size;
+            entry.mBucket = bucket;
+            entry.mOlder = mNewest;
+            if (mNewest != null) {
+                mNewest.mNewer = entry;
+            } else {
+                mOldest = entry;
+            }
+            mNewest = entry;
+            bucket.mEntries.add(entry);
+            mBytes += size;
+            trimToSize(mMaxBytes);
+        }
+    }
+
+    /**
+     * Sets the byte budget, evicting bitmaps if needed
+     * @param maxBytes the budget, an eighth of the maximal heap by default
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        mMaxBytes = maxBytes;
+        trimToSize(maxBytes);
+    }
+
+    /**
+     * Getter for the byte budget
+     * @return the budget, in bytes
+     */
+    public synchronized long getMaxBytes() {
+        return mMaxBytes;
+    }
+
+    /**
+     * Getter for the pool size
+     * @return the bytes held by pooled bitmaps
+     */
+    public synchronized long getSize() {
+        return mBytes;
+    }
+
+    /**
+     * Getter for the number of hits
+     * @return the number of {@link #get(int, int, Bitmap.Config)} calls served by a pooled bitmap
+     */
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * Getter for the number of misses
+     * @return the number of {@link #get(int, int, Bitmap.Config)} calls which allocated a new bitmap
+     */
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * Getter for the number of evictions
+     * @return the number of bitmaps dropped to stay within the budget or on memory pressure
+     */
+    public synchronized long getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    /**
+     * Evicts every pooled bitmap
+     */
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * Clears the pool when the process is likely to be killed or memory is critically low while running, halves it when the UI is hidden or memory runs low.
+     */
+    @Override
+    public synchronized void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            trimToSize(0);
+        } else if (level >= TRIM_MEMORY_UI_HIDDEN || level == TRIM_MEMORY_RUNNING_LOW) {
+            trimToSize(mMaxBytes / 2);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    /**
+     * Evicts the least recently released bitmaps until the pool fits the supplied size. Must hold the lock.
+     * @param maxBytes the size to fit
+     */
+    private void trimToSize(long maxBytes) {
+        while (mBytes > maxBytes && mOldest != null) {
+            Entry entry = mOldest;
+            //the oldest bitmap overall is the oldest of its bucket.
+            entry.mBucket.mEntries.remove(0);
+            unlink(entry);
+            Bitmap evicted = entry.mBitmap;
+            mBytes -= entry.mSize;
+            mEvictionCount++;
+            recycleEntry(entry);
+            //the pool is the only owner, free the pixels now rather than on finalization.
+            evicted.recycle();
+        }
+    }
+
+    /**
+     * Removes an entry from the release order. Must hold the lock.
+     * @param entry the pooled entry
+     */
+    private void unlink(Entry entry) {
+        if (entry.mOlder != null) {
+            entry.mOlder.mNewer = entry.mNewer;
+        } else {
+            mOldest = entry.mNewer;
+        }
+        if (entry.mNewer != null) {
+            entry.mNewer.mOlder = entry.mOlder;
+        } else {
+            mNewest = entry.mOlder;
+        }
+    }
+
+    /**
+     * Returns an unused entry, reusing a recycled one when possible. Must hold the lock.
+     * @return an empty entry
+     */
+    private Entry obtainEntry() {
+        Entry entry = mFreeEntries;
+        if (entry == null) {
+            return new Entry();
+        }
+        mFreeEntries = entry.mNewer;
+        entry.mNewer = null;
+        return entry;
+    }
+
+    /**
+     * Clears an entry removed from the pool and keeps it for reuse. Must hold the lock.
+     * @param entry the unlinked entry
+     */
+    private void recycleEntry(Entry entry) {
+        entry.mBitmap = null;
+        entry.mBucket = null;
+        entry.mOlder = null;
+        entry.mNewer = mFreeEntries;
+        mFreeEntries = entry;
+    }
+
+    /**
+     * Returns the memory used by a bitmap
+     * @param bitmap the bitmap
+     * @return the size in bytes
+     */
+    private static long sizeOf(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return bitmap.getAllocationByteCount();
+        }
+        return bitmap.getByteCount();
+    }
+
+    /**
+     * The size and config of the bitmaps in a bucket
+     */
+    private static final class Key {
+
+        private int mWidth;
+        private int mHeight;
+        private Bitmap.Config mConfig;
+
+        /**
+         * Sets the key, used to reuse the lookup key
+         * @param width the width of the bitmaps
+         * @param height the height of the bitmaps
+         * @param config the config of the bitmaps
+         * @return this key
+         */
+        Key set(int width, int height, Bitmap.Config config) {
+            mWidth = width;
+            mHeight = height;
+            mConfig = config;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return mWidth == other.mWidth && mHeight == other.mHeight && mConfig == other.mConfig;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mWidth;
+            result = 31 * result + mHeight;
+            result = 31 * result + (mConfig != null ? mConfig.hashCode() : 0);
+            return result;
+        }
+    }
+
+    /**
+     * The pooled bitmaps of a single size and config
+     */
+    private static final class Bucket {
+
+        /**
+         * The entries, least recently released first
+         */
+        final ArrayList<Entry> mEntries = new ArrayList<Entry>();
+    }
+
+    /**
+     * A pooled bitmap, linked in the release order of the whole pool
+     */
+    private static final class Entry {
+
+        Bitmap mBitmap;
+        long mSize;
+        Bucket mBucket;
+        Entry mOlder;
+        Entry mNewer;
+    }
+}
@@ -19,33 +19,97 @@
 package com.sagiantebi.canvasanimations.animations;
 
 import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.ObjectAnimator;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.os.Handler;
-import android.os.Looper;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.os.Trace;
 import com.sagiantebi.canvasanimations.layout.CanvasLayout;
 
 /**
- * an abstract class for defining an animation which can be loaded into a {@link CanvasLayout}
+ * an abstract class for defining an animation which can be loaded into a {@link CanvasLayout}<br/>
+ * Instances hold no per layout state - the running flag, size and buffers live in each layout's {@link CanvasAnimationState},
+ * so a single instance can be loaded into any number of layouts.
  */
 public abstract class CanvasAnimation {
 
     /**
-     * The layout we are currently animating.
+     * The default frame budget used by the metrics, a single frame at 60 frames per second
+     */
+    public final static long DEFAULT_FRAME_BUDGET_NANOS = 16666667L;
+
+    /**
+     * Trace section names, visible in systrace and perfetto captures
+     */
+    private final static String TRACE_SECTION_DISPATCH_DRAW = "CanvasAnimation#dispatchDraw";
+    private final static String TRACE_SECTION_SEGMENT = "CanvasAnimation#segment";
+
+    /**
+     * A listener receiving the draw metrics of every animation run
+     */
+    public interface OnMetricsListener {
+        /**
+         * Invoked when an animation stops running on a layout
+         * @param layout the animated layout
+         * @param animation the animation which recorded the metrics
+         * @param metrics the metrics of the run, only valid during this callback
+         */
+        void onAnimationMetrics(CanvasLayout layout, CanvasAnimation animation, CanvasAnimationMetrics metrics);
+    }
+
+    /**
+     * The layout we are currently animating - the layout being drawn while drawing, otherwise the last attached layout.
      */
     private CanvasLayout mLayout;
     /**
-     * Optimization flag, makes sure we only invoke the animation drawing when the animator is running
+     * When true, the layout's children are rendered once into a snapshot and segments draw slices of it
+     */
+    private boolean mSnapshotEnabled = false;
+    /**
+     * The size of snapshot tiles, or 0 for a single bitmap snapshot
+     */
+    private int mSnapshotTileSize = 0;
+    /**
+     * A reusable canvas for rendering the children into a snapshot
      */
-    private boolean mRunning = false;
+    private final Canvas mSnapshotCanvas = new Canvas();
     /**
-     * Main thread handler for posting the change to {@link #mRunning} flag properly
+     * Filtering paint for drawing the snapshot under the (possibly perspective) segment matrices
      */
-    private final Handler mMainThreadHandler;
+    private final Paint mSnapshotPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    /**
+     * Reusable source and destination rects for drawing slices of the snapshot
+     */
+    private final Rect mSnapshotSrc = new Rect();
+    private final RectF mSnapshotDst = new RectF();
+    /**
+     * The metrics listener, metrics are recorded only while one is set
+     */
+    private OnMetricsListener mMetricsListener;
+    /**
+     * Frames taking longer than this are counted by {@link CanvasAnimationMetrics#getFramesOverBudget()}
+     */
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    /**
+     * The optional quality governor, see {@link #setQualityGovernor(QualityGovernor)}
+     */
+    private QualityGovernor mQualityGovernor;
+    /**
+     * The target frame rate and the matching minimal interval between drawn steps, 0 for the display rate
+     */
+    private int mTargetFrameRate = 0;
+    private long mTargetFrameIntervalNanos = 0;
+    /**
+     * The number of discrete step intervals, 0 for continuous steps
+     */
+    private int mStepQuantization = 0;
 
     public CanvasAnimation() {
-        mMainThreadHandler = new Handler(Looper.getMainLooper());
+
     }
 
     /**
@@ -54,26 +118,110 @@ public abstract class CanvasAnimation {
      */
     public void setLayout(CanvasLayout layout) {
         mLayout = layout;
+        precompute();
     }
 
     /**
      * Getter for the {@link CanvasLayout} currently attached to this animation. read by implementations.
-     * @return the current canvas layout or null if none is attached.
+     * @return the layout being drawn while drawing, otherwise the last attached layout. null if none is attached.
      */
     protected CanvasLayout getLayout() {
         return mLayout;
     }
 
     /**
-     * Draws the animation using the supplied {@link Canvas} only when the animation is running
+     * Getter for the width of the current layout, read by implementations instead of measuring the layout's view.
+     * @return the width of the layout being drawn
+     */
+    protected int getLayoutWidth() {
+        return mLayout.getAnimationState().getWidth();
+    }
+
+    /**
+     * Getter for the height of the current layout, read by implementations instead of measuring the layout's view.
+     * @return the height of the layout being drawn
+     */
+    protected int getLayoutHeight() {
+        return mLayout.getAnimationState().getHeight();
+    }
+
+    /**
+     * Draws the animation on the attached layout using the supplied {@link Canvas} only when the animation is running
      * @param canvas The canvas to draw
      * @param step The current animation step
      */
     public void draw(Canvas canvas, float step) {
-        if (isRunning()) {
-            dispatchDraw(canvas, step);
-        } else {
-            mLayout.commitDraw(canvas);
+        draw(mLayout, canvas, step);
+    }
+
+    /**
+     * Draws the animation on the supplied layout using the supplied {@link Canvas} only when the animation is running on that layout
+     * @param layout The layout being drawn
+     * @param canvas The canvas to draw
+     * @param step The current animation step
+     */
+    public void draw(CanvasLayout layout, Canvas canvas, float step) {
+        CanvasLayout attached = mLayout;
+        mLayout = layout;
+        try {
+            CanvasAnimationState state = layout.getAnimationState();
+            if (state.isRunning()) {
+                CanvasAnimationMetrics metrics = mMetricsListener != null ? state.beginMetrics(this) : null;
+                QualityGovernor governor = mQualityGovernor;
+                long start = metrics != null || governor != null ? System.nanoTime() : 0;
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+                    Trace.beginSection(TRACE_SECTION_DISPATCH_DRAW);
+                }
+                SnapshotTiles tiles = null;
+                if (!drawsFromSnapshot(layout)) {
+                    state.releaseSnapshot();
+                } else if (mSnapshotTileSize > 0) {
+                    if (state.getWidth() > 0 && state.getHeight() > 0) {
+                        tiles = state.obtainSnapshotTiles();
+                        tiles.configure(mSnapshotTileSize, state.getWidth(), state.getHeight());
+                        if (!state.mSnapshotDirty.isEmpty()) {
+                            tiles.invalidate(this, layout, state.mSnapshotDirty);
+                            state.mSnapshotDirty.setEmpty();
+                        }
+                        tiles.beginFrame();
+                    }
+                } else if (state.mSnapshot == null || state.mSnapshot.getWidth() != state.getWidth() || state.mSnapshot.getHeight() != state.getHeight()) {
+                    //missing, or captured before the layout was resized.
+                    state.releaseSnapshot();
+                    captureSnapshot(state);
+                } else if (!state.mSnapshotDirty.isEmpty()) {
+                    refreshSnapshot(state);
+                }
+                if (state.mSnapshotUnsupported) {
+                    //the children cannot be rendered in software, draw them directly for the rest of the run.
+                    state.releaseSnapshot();
+                    tiles = null;
+                }
+                dispatchDraw(canvas, step);
+                if (tiles != null) {
+                    tiles.endFrame();
+                }
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+                    Trace.endSection();
+                }
+                if (start != 0) {
+                    long drawTime = System.nanoTime() - start;
+                    if (metrics != null) {
+                        metrics.recordFrame(drawTime, mFrameBudgetNanos);
+                    }
+                    if (governor != null) {
+                        governor.onFrameDrawn(drawTime);
+                    }
+                }
+            } else {
+                if (!state.mSnapshotPrepared) {
+                    //this frame no longer draws the snapshot, it can be reused.
+                    state.releaseSnapshot();
+                }
+                layout.commitDraw(canvas);
+            }
+        } finally {
+            mLayout = attached;
         }
     }
 
@@ -85,64 +233,500 @@ public abstract class CanvasAnimation {
     protected abstract void dispatchDraw(Canvas canvas, float step);
 
     /**
-     * Returns if the animation is currently running
-     * @return true if the animation is currently running, false otherwise
+     * Hook for building size dependent caches ahead of drawing, such as transform tables.<br/>
+     * Invoked when the animation is attached to a layout and when a new animator is created, provided the layout has a size.
+     * Implementations should still verify the size while drawing, since the layout may be resized during the animation.
+     * @param width the width of the layout
+     * @param height the height of the layout
      */
-    public boolean isRunning() {
-        return mRunning;
+    protected void onPrecompute(int width, int height) {
+
     }
 
     /**
-     * Setter for the running state. useful for situations where the animation is used outside of an animation context<br/>
-     * A good example would be using the animation in a scroll of a recycled list.
-     * @param running the desired state, true to make this animation draw, false otherwise.
-     * @see #mRunning
+     * Invoked by {@link #prepare(CanvasLayout)} after {@link #onPrecompute(int, int)}, subclasses should warm any caches or native objects
+     * used by the first frame, i.e. by computing a single segment.
+     * @param width the width of the layout
+     * @param height the height of the layout
      */
-    public void setRunning(boolean running) {
-        mRunning = running;
+    protected void onPrepare(int width, int height) {
+
     }
 
     /**
-     * An animator listener adapter which listens on the attached animator
+     * Prepares the attached layout, see {@link #prepare(CanvasLayout)}
      */
-    private Animator.AnimatorListener mAnimatorListener = new AnimatorListenerAdapter() {
-        @Override
-        public void onAnimationCancel(Animator animation) {
-            super.onAnimationCancel(animation);
-            setRunning(false);
+    public void prepare() {
+        if (mLayout != null) {
+            prepare(mLayout);
         }
+    }
 
-        @Override
-        public void onAnimationEnd(Animator animation) {
-            super.onAnimationEnd(animation);
-            //post a runnable for ending the animation, giving any other listeners an opportunity to do something important.
-            mMainThreadHandler.post(new Runnable() {
-                @Override
-                public void run() {
-                    setRunning(false);
+    /**
+     * Moves the setup cost of the first frame ahead of the animation start, i.e. while a fragment transaction is pending.<br/>
+     * Creates the layout's animator, computes the geometry for the layout's size, warms the subclass caches and, with {@link #setSnapshotEnabled(boolean)},
+     * captures the snapshot which the first frame would otherwise render. A prepared snapshot is kept until the next run on the layout ends,
+     * children invalidated in between are rendered again when it starts and a resized layout is captured again.
+     * If the run never starts, the snapshot is returned to the pool by {@link CanvasAnimationState#releasePreparedSnapshot()}.
+     * Must be invoked from the main thread, after the layout was measured.
+     * @param layout the layout which is about to be animated
+     */
+    public void prepare(CanvasLayout layout) {
+        CanvasLayout attached = mLayout;
+        mLayout = layout;
+        try {
+            CanvasAnimationState state = layout.getAnimationState();
+            if (!state.isRunning()) {
+                state.prepareAnimator();
+            }
+            int w = state.getWidth();
+            int h = state.getHeight();
+            if (w > 0 && h > 0) {
+                onPrecompute(w, h);
+                onPrepare(w, h);
+                if (mSnapshotEnabled && !state.isRunning() && !state.mSnapshotUnsupported) {
+                    if (mSnapshotTileSize > 0) {
+                        //tiles depend on what the first frame draws, only make sure the pool can serve one.
+                        BitmapPool pool = BitmapPool.getInstance();
+                        pool.put(pool.get(mSnapshotTileSize, mSnapshotTileSize, Bitmap.Config.ARGB_8888));
+                    } else {
+                        if (state.mSnapshot != null && (state.mSnapshot.getWidth() != w || state.mSnapshot.getHeight() != h)) {
+                            state.releaseSnapshot();
+                        }
+                        if (state.mSnapshot == null) {
+                            captureSnapshot(state);
+                        }
+                        state.mSnapshotPrepared = state.mSnapshot != null;
+                    }
                 }
-            });
+            }
+        } finally {
+            mLayout = attached != null ? attached : layout;
+        }
+    }
+
+    /**
+     * Invokes {@link #onPrecompute(int, int)} if the attached layout has a size
+     */
+    private void precompute() {
+        if (mLayout != null) {
+            CanvasAnimationState state = mLayout.getAnimationState();
+            if (state.getWidth() > 0 && state.getHeight() > 0) {
+                onPrecompute(state.getWidth(), state.getHeight());
+            }
+        }
+    }
+
+    /**
+     * Computes the region of the layout which changes when moving from one step to another, used by layouts to invalidate only that region.<br/>
+     * The default implementation reports the whole layout, or nothing when the steps map to the same pixel of the layout's height.
+     * Animations which only move clip edges should override it and report the strip between the edges.
+     * An empty region skips the frame on every renderer, while a partial region only reduces the redrawn area under software rendering -
+     * hardware accelerated views from API 21 redraw their whole display list regardless.
+     * @param fromStep the step currently drawn
+     * @param toStep the step about to be drawn
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @param outRegion receives the changed region, in layout coordinates. left empty if the transition changes nothing visible.
+     */
+    public void computeDirtyRegion(float fromStep, float toStep, int width, int height, Rect outRegion) {
+        if (Math.round(fromStep * height) == Math.round(toStep * height)) {
+            outRegion.setEmpty();
+        } else {
+            outRegion.set(0, 0, width, height);
+        }
+    }
+
+    /**
+     * Draws the layout's content. Implementations should use this instead of {@link CanvasLayout#commitDraw(Canvas)} directly,
+     * so the content can be served from the snapshot when {@link #setSnapshotEnabled(boolean)} is on.
+     * @param canvas The canvas of the layout
+     */
+    protected void drawContent(Canvas canvas) {
+        CanvasAnimationState state = mLayout.getAnimationState();
+        Bitmap snapshot = state.mSnapshot;
+        if (state.mSnapshotTiles != null && state.mSnapshotTiles.isActive()) {
+            state.mSnapshotTiles.draw(this, mLayout, canvas, mSnapshotPaint, 0, 0, state.getWidth(), state.getHeight());
+        } else if (snapshot != null) {
+            canvas.drawBitmap(snapshot, 0, 0, mSnapshotPaint);
+        } else {
+            commitDraw(mLayout, canvas);
+        }
+    }
+
+    /**
+     * Draws only the given region of the layout's content. Without a snapshot the children are dispatched as usual and the caller's clip applies,
+     * with a snapshot only the matching slice of the bitmap is drawn.
+     * @param canvas The canvas of the layout
+     * @param left the left edge of the region, in layout coordinates
+     * @param top the top edge of the region, in layout coordinates
+     * @param right the right edge of the region, in layout coordinates
+     * @param bottom the bottom edge of the region, in layout coordinates
+     */
+    protected void drawContent(Canvas canvas, float left, float top, float right, float bottom) {
+        CanvasAnimationState state = mLayout.getAnimationState();
+        Bitmap snapshot = state.mSnapshot;
+        if (state.mSnapshotTiles != null && state.mSnapshotTiles.isActive()) {
+            state.mSnapshotTiles.draw(this, mLayout, canvas, mSnapshotPaint, left, top, right, bottom);
+        } else if (snapshot != null) {
+            mSnapshotSrc.set((int) Math.floor(left), (int) Math.floor(top), (int) Math.ceil(right), (int) Math.ceil(bottom));
+            if (mSnapshotSrc.intersect(0, 0, snapshot.getWidth(), snapshot.getHeight())) {
+                mSnapshotDst.set(mSnapshotSrc);
+                canvas.drawBitmap(snapshot, mSnapshotSrc, mSnapshotDst, mSnapshotPaint);
+            }
+        } else {
+            commitDraw(mLayout, canvas);
+        }
+    }
+
+    /**
+     * Dispatches the children of a layout, counting the traversal when recording metrics
+     * @param layout the layout to draw
+     * @param canvas the canvas to draw to
+     */
+    void commitDraw(CanvasLayout layout, Canvas canvas) {
+        CanvasAnimationState state = layout.getAnimationState();
+        if (state.mMetricsAnimation != null) {
+            state.mMetrics.recordCommitDraw();
         }
+        layout.commitDraw(canvas);
+    }
 
-        @Override
-        public void onAnimationStart(Animator animation) {
-            super.onAnimationStart(animation);
-            setRunning(true);
+    /**
+     * Renders the children of a layout into a software canvas backed by a snapshot bitmap.<br/>
+     * Software canvases cannot draw {@link Bitmap.Config#HARDWARE} bitmaps, which most image loaders use by default on API 26 and above.
+     * Instead of crashing, the layout is marked by {@link CanvasAnimationState#mSnapshotUnsupported} and its children are drawn directly until the run ends.
+     * @param layout the layout to render
+     * @param canvas the software canvas of the snapshot
+     * @return true if the children were rendered, false if the snapshot cannot be used
+     */
+    boolean renderSnapshot(CanvasLayout layout, Canvas canvas) {
+        int count = canvas.save();
+        try {
+            commitDraw(layout, canvas);
+            return true;
+        } catch (IllegalArgumentException e) {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+                throw e;
+            }
+            //"Software rendering doesn't support hardware bitmaps"
+            layout.getAnimationState().mSnapshotUnsupported = true;
+            return false;
+        } finally {
+            canvas.restoreToCount(count);
         }
-    };
+    }
 
     /**
-     * Creates a new {@link Animator} instance, attaching this canvas animation to it. <br/>
+     * Marks the beginning of a segment in trace captures. Segmented animations call this before drawing each segment.
+     */
+    protected static void beginSegmentTrace() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(TRACE_SECTION_SEGMENT);
+        }
+    }
+
+    /**
+     * Marks the end of a segment in trace captures
+     * @see #beginSegmentTrace()
+     */
+    protected static void endSegmentTrace() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Getter for the bitmap pool used by the library's offscreen buffers, subclasses should use it for their own buffers as well
+     * @return the shared {@link BitmapPool}
+     */
+    protected BitmapPool getBitmapPool() {
+        return BitmapPool.getInstance();
+    }
+
+    /**
+     * Attaches an adaptive quality governor to this animation.<br/>
+     * The governor measures every animated frame and, when frames exceed its budget, reduces the number of segments returned by
+     * {@link #getEffectiveSegmentCount(int)} (after drawing from a snapshot, if allowed), restoring the quality when frames are fast again.
+     * @param governor the governor, or null to always draw at full quality (the default)
+     */
+    public void setQualityGovernor(QualityGovernor governor) {
+        mQualityGovernor = governor;
+    }
+
+    /**
+     * Getter for the attached quality governor
+     * @return the governor, or null if none is attached
+     */
+    public QualityGovernor getQualityGovernor() {
+        return mQualityGovernor;
+    }
+
+    /**
+     * Applies the quality governor to a segment count. Segmented animations should draw this many segments.
+     * @param segments the number of segments at full quality
+     * @return the number of segments to draw for the current quality, at least 1
+     */
+    protected int getEffectiveSegmentCount(int segments) {
+        return mQualityGovernor != null ? mQualityGovernor.getEffectiveSegmentCount(segments) : segments;
+    }
+
+    /**
+     * Limits how often a running animation is redrawn, trading smoothness for battery and thermal headroom.<br/>
+     * Layouts skip step changes arriving sooner than the target interval after the last drawn one, the first and last steps are always drawn.
+     * @param framesPerSecond the target frame rate, i.e. 30 or 60, or 0 to redraw on every step change (the default)
+     */
+    public void setTargetFrameRate(int framesPerSecond) {
+        if (framesPerSecond < 0) {
+            throw new IllegalArgumentException("framesPerSecond cannot be negative");
+        }
+        mTargetFrameRate = framesPerSecond;
+        mTargetFrameIntervalNanos = framesPerSecond > 0 ? 1000000000L / framesPerSecond : 0;
+    }
+
+    /**
+     * Getter for the target frame rate
+     * @return the target frame rate, or 0 for the display rate
+     */
+    public int getTargetFrameRate() {
+        return mTargetFrameRate;
+    }
+
+    /**
+     * Snaps the animation step to a number of discrete intervals. Step changes which snap to the drawn step are not redrawn.
+     * @param steps the number of intervals between 0 and 1, or 0 for continuous steps (the default)
+     */
+    public void setStepQuantization(int steps) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("steps cannot be negative");
+        }
+        mStepQuantization = steps;
+    }
+
+    /**
+     * Getter for the step quantization
+     * @return the number of discrete intervals, or 0 for continuous steps
+     */
+    public int getStepQuantization() {
+        return mStepQuantization;
+    }
+
+    /**
+     * Applies {@link #setStepQuantization(int)} to a step, invoked by layouts when the step changes
+     * @param step the step
+     * @return the snapped step
+     */
+    public float quantizeStep(float step) {
+        int steps = mStepQuantization;
+        return steps > 0 ? Math.round(step * steps) / (float) steps : step;
+    }
+
+    /**
+     * Applies {@link #setTargetFrameRate(int)} to a step change, invoked by layouts before invalidating.<br/>
+     * A skipped step is remembered by the layout's state and drawn once the target interval has passed, unless a later step was drawn first.
+     * This keeps the last step of a scroll driven animation from staying undrawn when the steps stop arriving.
+     * @param layout the layout whose step changed
+     * @param step the new step
+     * @return true if the layout should redraw, false if the step change should be skipped
+     */
+    public boolean shouldDrawStep(CanvasLayout layout, float step) {
+        long interval = mTargetFrameIntervalNanos;
+        if (interval <= 0) {
+            return true;
+        }
+        CanvasAnimationState state = layout.getAnimationState();
+        long now = System.nanoTime();
+        //an eighth of the interval absorbs vsync jitter, so 60fps on a 120Hz display draws every other frame.
+        long threshold = interval - (interval >> 3);
+        if (state.isRunning() && step > 0f && step < 1f && now - state.mLastStepTimeNanos < threshold) {
+            state.mStepPending = true;
+            state.postSkippedStepFlush(state.mLastStepTimeNanos + threshold);
+            return false;
+        }
+        state.mLastStepTimeNanos = now;
+        state.mStepPending = false;
+        return true;
+    }
+
+    /**
+     * Sets a listener receiving the draw metrics of each run of this animation, per layout.<br/>
+     * While a listener is set, every animated frame records its draw time, child traversals and skipped steps without allocating.
+     * The metrics are delivered when the animation stops running on a layout.
+     * @param listener the listener, or null to stop recording metrics
+     */
+    public void setMetricsListener(OnMetricsListener listener) {
+        mMetricsListener = listener;
+    }
+
+    /**
+     * Sets the frame budget used by the metrics
+     * @param budgetNanos the budget of a single frame, in nanoseconds. {@link #DEFAULT_FRAME_BUDGET_NANOS} by default.
+     */
+    public void setFrameBudgetNanos(long budgetNanos) {
+        mFrameBudgetNanos = budgetNanos;
+    }
+
+    /**
+     * Delivers the metrics of a run to the listener, invoked by {@link CanvasAnimationState} when a run ends
+     * @param layout the animated layout
+     * @param metrics the metrics of the run
+     */
+    void dispatchMetrics(CanvasLayout layout, CanvasAnimationMetrics metrics) {
+        if (mMetricsListener != null) {
+            mMetricsListener.onAnimationMetrics(layout, this, metrics);
+        }
+    }
+
+    /**
+     * Enables or disables snapshot drawing for this instance.<br/>
+     * When enabled, the layout's children are rendered once into a bitmap when the animation starts running, and every frame draws from that bitmap
+     * instead of dispatching the children again. This is much cheaper for segmented animations.
+     * The bitmap is released when the animation ends or is cancelled. Layouts reporting child invalidations through
+     * {@link CanvasAnimationState#invalidateSnapshot(Rect)} get the changed regions rendered again, keeping animated children current.<br/>
+     * Children drawing hardware bitmaps cannot be rendered into a snapshot, the layout falls back to drawing them directly for the rest of that run.
+     * @param enabled true to draw from a snapshot, false to dispatch the children directly (the default)
+     */
+    public void setSnapshotEnabled(boolean enabled) {
+        mSnapshotEnabled = enabled;
+    }
+
+    /**
+     * Returns if the frames of a running layout take the snapshot path, drawing the content from the snapshot (or its tiles)
+     * rather than calling {@link CanvasLayout#commitDraw(Canvas)} for it. Layouts use it to skip recording the children for such frames.
+     * @param layout the animated layout
+     * @return true if the next frame of the layout draws from a snapshot
+     */
+    public boolean drawsFromSnapshot(CanvasLayout layout) {
+        QualityGovernor governor = mQualityGovernor;
+        return (mSnapshotEnabled || (governor != null && governor.usesSnapshot())) && !layout.getAnimationState().mSnapshotUnsupported;
+    }
+
+    /**
+     * Splits the snapshot into square tiles, for layouts too large for a single bitmap.<br/>
+     * Tiles are rendered when a frame first draws a region intersecting them (the segment or clip being drawn, limited by the canvas clip),
+     * and returned to the {@link BitmapPool} once a frame no longer draws them. Every new tile costs a traversal of the children.
+     * @param tileSize the size of every tile in pixels, or 0 for a single bitmap snapshot (the default)
+     */
+    public void setSnapshotTileSize(int tileSize) {
+        if (tileSize < 0) {
+            throw new IllegalArgumentException("tileSize cannot be negative");
+        }
+        mSnapshotTileSize = tileSize;
+    }
+
+    /**
+     * Getter for the snapshot tile size
+     * @return the size of every tile, or 0 for a single bitmap snapshot
+     */
+    public int getSnapshotTileSize() {
+        return mSnapshotTileSize;
+    }
+
+    /**
+     * Returns if snapshot drawing is enabled for this instance
+     * @return true if the content is drawn from a snapshot while running
+     * @see #setSnapshotEnabled(boolean)
+     */
+    public boolean isSnapshotEnabled() {
+        return mSnapshotEnabled;
+    }
+
+    /**
+     * Renders the layout's children into the state's snapshot.
+     * Leaves the snapshot empty (direct drawing) when the layout has no size, memory is short or the children draw hardware bitmaps.
+     * @param state the state of the layout being drawn
+     */
+    private void captureSnapshot(CanvasAnimationState state) {
+        int w = state.getWidth();
+        int h = state.getHeight();
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        Bitmap snapshot;
+        try {
+            snapshot = BitmapPool.getInstance().get(w, h, Bitmap.Config.ARGB_8888);
+        } catch (OutOfMemoryError e) {
+            return;
+        }
+        mSnapshotCanvas.setBitmap(snapshot);
+        boolean rendered = renderSnapshot(state.getLayout(), mSnapshotCanvas);
+        mSnapshotCanvas.setBitmap(null);
+        if (!rendered) {
+            BitmapPool.getInstance().put(snapshot);
+            return;
+        }
+        state.mSnapshot = snapshot;
+        state.mSnapshotDirty.setEmpty();
+    }
+
+    /**
+     * Renders the invalidated region of the snapshot again, the rest of the bitmap is kept.
+     * Marks the state by {@link CanvasAnimationState#mSnapshotUnsupported} if the region could not be rendered.
+     * @param state the state holding the snapshot
+     */
+    private void refreshSnapshot(CanvasAnimationState state) {
+        Rect dirty = state.mSnapshotDirty;
+        mSnapshotCanvas.setBitmap(state.mSnapshot);
+        int count = mSnapshotCanvas.save();
+        mSnapshotCanvas.clipRect(dirty);
+        mSnapshotCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        renderSnapshot(state.getLayout(), mSnapshotCanvas);
+        mSnapshotCanvas.restoreToCount(count);
+        mSnapshotCanvas.setBitmap(null);
+        dirty.setEmpty();
+    }
+
+    /**
+     * Returns if the animation is currently running on the attached layout
+     * @return true if the animation is currently running, false otherwise
+     */
+    public boolean isRunning() {
+        return mLayout != null && mLayout.getAnimationState().isRunning();
+    }
+
+    /**
+     * Setter for the running state of the attached layout. useful for situations where the animation is used outside of an animation context<br/>
+     * A good example would be using the animation in a scroll of a recycled list.
+     * @param running the desired state, true to make this animation draw, false otherwise.
+     * @see CanvasAnimationState#setRunning(boolean)
+     */
+    public void setRunning(boolean running) {
+        mLayout.getAnimationState().setRunning(running);
+    }
+
+    /**
+     * Returns an {@link Animator} attached to this canvas animation and the attached layout. <br/>
      * Please note - {@link #setLayout(CanvasLayout)} must be invoked beforehand. This is done to avoid allocations of this animation instance and to allow re-use.
      * @param start the value to start form i.e. 0f (when animating something in) or 1f (when animating something out)
      * @param end the value in which the animation should end.
      * @return an Animator instance bound to this animation.
+     * @see #newAnimatorInstance(CanvasLayout, float, float)
      */
     public Animator newAnimatorInstance(float start, float end) {
-        mLayout.requestInvalidation(this, start);
-        ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(mLayout, CanvasLayout.ANIMATION_STEP, start, end);
-        objectAnimator.addListener(mAnimatorListener);
-        return objectAnimator;
+        return newAnimatorInstance(mLayout, start, end);
+    }
+
+    /**
+     * Returns an {@link Animator} running this canvas animation on the supplied layout, loading this animation into the layout if needed.<br/>
+     * The same animator is returned on every call for a layout - a running animator is cancelled, and its listeners, duration, start delay, interpolator and repeat settings are reset.
+     * An animation scheduled on the layout by {@link CanvasAnimationScheduler} is cancelled as well.
+     * @param layout the layout to animate
+     * @param start the value to start form i.e. 0f (when animating something in) or 1f (when animating something out)
+     * @param end the value in which the animation should end.
+     * @return an Animator instance bound to this animation and layout.
+     */
+    public Animator newAnimatorInstance(CanvasLayout layout, float start, float end) {
+        CanvasAnimationState state = layout.getAnimationState();
+        state.cancelAnimator();
+        //a single driver per layout, the scheduler would otherwise keep setting the step.
+        CanvasAnimationScheduler.cancelScheduled(layout);
+        if (layout.getCurrentAnimation() != this) {
+            layout.loadAnimation(this);
+        }
+        mLayout = layout;
+        layout.requestInvalidation(this, start);
+        precompute();
+        return state.obtainAnimator(start, end);
     }
 
 }
@@ -0,0 +1,118 @@
+/*
+ * CanvasAnimationMetrics.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+/**
+ * The draw metrics of a single animation run on a single layout, delivered by {@link CanvasAnimation.OnMetricsListener}.<br/>
+ * Instances are reused between runs - read the values during the callback and do not keep a reference.
+ * Draw times measure {@link CanvasAnimation#dispatchDraw(android.graphics.Canvas, float)} on the UI thread, with hardware acceleration this is the recording time and not the rendering time.
+ */
+public final class CanvasAnimationMetrics {
+
+    private int mFramesDrawn;
+    private long mTotalDrawTimeNanos;
+    private long mMaxDrawTimeNanos;
+    private int mCommitDrawCount;
+    private int mStepsSkipped;
+    private int mFramesOverBudget;
+
+    /**
+     * Getter for the number of animated frames drawn
+     * @return the number of frames drawn during the run
+     */
+    public int getFramesDrawn() {
+        return mFramesDrawn;
+    }
+
+    /**
+     * Getter for the total draw time
+     * @return the sum of all frame draw times, in nanoseconds
+     */
+    public long getTotalDrawTimeNanos() {
+        return mTotalDrawTimeNanos;
+    }
+
+    /**
+     * Getter for the slowest frame
+     * @return the longest frame draw time, in nanoseconds
+     */
+    public long getMaxDrawTimeNanos() {
+        return mMaxDrawTimeNanos;
+    }
+
+    /**
+     * Getter for the number of child traversals
+     * @return the number of {@link com.sagiantebi.canvasanimations.layout.CanvasLayout#commitDraw(android.graphics.Canvas)} invocations made by the animation
+     */
+    public int getCommitDrawCount() {
+        return mCommitDrawCount;
+    }
+
+    /**
+     * Getter for the number of skipped steps
+     * @return the number of step changes which did not cause a redraw, being invisible or coalesced with a later step
+     */
+    public int getStepsSkipped() {
+        return mStepsSkipped;
+    }
+
+    /**
+     * Getter for the number of slow frames
+     * @return the number of frames which took longer than {@link CanvasAnimation#setFrameBudgetNanos(long)}
+     */
+    public int getFramesOverBudget() {
+        return mFramesOverBudget;
+    }
+
+    /**
+     * Records a drawn frame
+     * @param drawTimeNanos the time it took to draw the frame
+     * @param budgetNanos the frame budget
+     */
+    void recordFrame(long drawTimeNanos, long budgetNanos) {
+        mFramesDrawn++;
+        mTotalDrawTimeNanos += drawTimeNanos;
+        if (drawTimeNanos > mMaxDrawTimeNanos) {
+            mMaxDrawTimeNanos = drawTimeNanos;
+        }
+        if (drawTimeNanos > budgetNanos) {
+            mFramesOverBudget++;
+        }
+    }
+
+    void recordCommitDraw() {
+        mCommitDrawCount++;
+    }
+
+    void recordSkippedStep() {
+        mStepsSkipped++;
+    }
+
+    /**
+     * Clears all values for a new run
+     */
+    void reset() {
+        mFramesDrawn = 0;
+        mTotalDrawTimeNanos = 0;
+        mMaxDrawTimeNanos = 0;
+        mCommitDrawCount = 0;
+        mStepsSkipped = 0;
+        mFramesOverBudget = 0;
+    }
+}
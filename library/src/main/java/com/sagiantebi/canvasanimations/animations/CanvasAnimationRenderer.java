@@ -0,0 +1,481 @@
+/*
+ * CanvasAnimationRenderer.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Process;
+import android.view.View;
+import com.sagiantebi.canvasanimations.layout.CanvasLayout;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Renders the frames of a {@link CanvasAnimation} offscreen, on background threads - useful for previews, thumbnails and exports.<br/>
+ * Frames are rendered in parallel, every worker using its own animation instance from an {@link AnimationFactory} since animations keep
+ * camera and matrix scratch state. The frames are delivered in order through a {@link FrameStream}, which holds a bounded number of bitmaps
+ * obtained from the {@link BitmapPool}.
+ */
+public final class CanvasAnimationRenderer {
+
+    /**
+     * Creates the animation instances used by the workers.<br/>
+     * Every call must return an independent instance - animations, {@link QualityGovernor}s and metrics listeners are not thread safe,
+     * so instances must not share any of them with each other or with animations drawn on the main thread.
+     */
+    public interface AnimationFactory {
+        /**
+         * Creates a new animation, invoked once per worker on a background thread.
+         * Any quality governor or metrics listener attached to it is detached by the renderer, offscreen frames have no frame budget.
+         * @return a new animation instance, not shared with any other caller
+         */
+        CanvasAnimation newAnimation();
+    }
+
+    /**
+     * A rendered frame. Frames must be released once consumed, returning their bitmap to the stream.
+     */
+    public static final class Frame {
+
+        private final FrameStream mStream;
+        private final int mIndex;
+        private final float mStep;
+        private Bitmap mBitmap;
+
+        private Frame(FrameStream stream, int index, float step, Bitmap bitmap) {
+            mStream = stream;
+            mIndex = index;
+            mStep = step;
+            mBitmap = bitmap;
+        }
+
+        /**
+         * Getter for the index of this frame
+         * @return the index in the steps supplied to {@link #render(Bitmap, float[], int)}
+         */
+        public int getIndex() {
+            return mIndex;
+        }
+
+        /**
+         * Getter for the step of this frame
+         * @return the animation step this frame was rendered at
+         */
+        public float getStep() {
+            return mStep;
+        }
+
+        /**
+         * Getter for the rendered bitmap, valid until {@link #release()}
+         * @return the bitmap, or null if released
+         */
+        public Bitmap getBitmap() {
+            return mBitmap;
+        }
+
+        /**
+         * Returns the bitmap to the stream so later frames can be rendered into it. Copy the bitmap first if it has to be kept.
+         */
+        public void release() {
+            Bitmap bitmap = mBitmap;
+            if (bitmap != null) {
+                mBitmap = null;
+                mStream.releaseBitmap(bitmap);
+            }
+        }
+    }
+
+    /**
+     * An ordered stream of rendered frames. At most the capacity supplied to {@link #render(Bitmap, float[], int)} bitmaps exist at any time,
+     * workers wait for released frames once all of them are in use.
+     */
+    public static final class FrameStream {
+
+        private final Object mLock = new Object();
+        private final float[] mSteps;
+        private final int mWidth;
+        private final int mHeight;
+        /**
+         * The bitmap budget, and the bitmaps created so far
+         */
+        private final int mCapacity;
+        private int mAllocated = 0;
+        /**
+         * Released bitmaps, reused by the workers. Once the last frame is claimed they go back to the {@link BitmapPool}, as do later releases.
+         */
+        private final ArrayDeque<Bitmap> mFreeBitmaps = new ArrayDeque<Bitmap>();
+        /**
+         * Rendered frames waiting to be taken, by index
+         */
+        private final Frame[] mFrames;
+        /**
+         * The next index to be claimed by a worker, and the next index to be taken by {@link #next()}
+         */
+        private int mNextClaim = 0;
+        private int mNextTake = 0;
+        private boolean mClosed = false;
+        private Throwable mError;
+
+        private FrameStream(float[] steps, int width, int height, int capacity) {
+            mSteps = steps;
+            mWidth = width;
+            mHeight = height;
+            mCapacity = capacity;
+            mFrames = new Frame[steps.length];
+        }
+
+        /**
+         * Getter for the number of frames in this stream
+         * @return the number of frames
+         */
+        public int getFrameCount() {
+            return mSteps.length;
+        }
+
+        /**
+         * Waits for the next frame, in order
+         * @return the next frame, or null if every frame was taken or the stream was closed
+         * @throws InterruptedException if interrupted while waiting
+         * @throws IllegalStateException if rendering failed
+         */
+        public Frame next() throws InterruptedException {
+            synchronized (mLock) {
+                while (!mClosed && mError == null && mNextTake < mFrames.length && mFrames[mNextTake] == null) {
+                    mLock.wait();
+                }
+                if (mError != null) {
+                    throw new IllegalStateException("Rendering failed", mError);
+                }
+                if (mClosed || mNextTake >= mFrames.length) {
+                    return null;
+                }
+                Frame frame = mFrames[mNextTake];
+                mFrames[mNextTake++] = null;
+                return frame;
+            }
+        }
+
+        /**
+         * Stops rendering and drops every frame which was not taken yet. Frames already taken remain valid.
+         */
+        public void close() {
+            synchronized (mLock) {
+                mClosed = true;
+                BitmapPool pool = BitmapPool.getInstance();
+                for (int i = mNextTake; i < mFrames.length; i++) {
+                    if (mFrames[i] != null) {
+                        pool.put(mFrames[i].mBitmap);
+                        mFrames[i] = null;
+                    }
+                }
+                releaseFreeBitmaps();
+                mLock.notifyAll();
+            }
+        }
+
+        /**
+         * Returns the released bitmaps to the {@link BitmapPool}, invoked once no more frames will be rendered. Must hold {@link #mLock}.
+         */
+        private void releaseFreeBitmaps() {
+            BitmapPool pool = BitmapPool.getInstance();
+            while (!mFreeBitmaps.isEmpty()) {
+                pool.put(mFreeBitmaps.poll());
+            }
+        }
+
+        /**
+         * Claims the next frame for a worker, waiting for a bitmap if the budget is exhausted.<br/>
+         * Indices are claimed only together with a bitmap, so the frame {@link #next()} waits for always has one.
+         * @param outBitmap receives a reusable bitmap, or null if the worker should create one
+         * @return the claimed index, or -1 if there is nothing left to render
+         */
+        private int claim(Bitmap[] outBitmap) throws InterruptedException {
+            synchronized (mLock) {
+                while (!mClosed && mError == null && mNextClaim < mSteps.length && mFreeBitmaps.isEmpty() && mAllocated >= mCapacity) {
+                    mLock.wait();
+                }
+                if (mClosed || mError != null || mNextClaim >= mSteps.length) {
+                    //no more frames will be produced, the stream keeps only the frames waiting to be taken.
+                    releaseFreeBitmaps();
+                    return -1;
+                }
+                Bitmap bitmap = mFreeBitmaps.poll();
+                if (bitmap == null) {
+                    mAllocated++;
+                }
+                outBitmap[0] = bitmap;
+                if (++mNextClaim >= mSteps.length) {
+                    releaseFreeBitmaps();
+                }
+                return mNextClaim - 1;
+            }
+        }
+
+        private void publish(int index, Bitmap bitmap) {
+            synchronized (mLock) {
+                if (!mClosed) {
+                    mFrames[index] = new Frame(this, index, mSteps[index], bitmap);
+                    mLock.notifyAll();
+                    return;
+                }
+            }
+            BitmapPool.getInstance().put(bitmap);
+        }
+
+        private void fail(Throwable error) {
+            synchronized (mLock) {
+                if (mError == null) {
+                    mError = error;
+                }
+                mLock.notifyAll();
+            }
+        }
+
+        private void releaseBitmap(Bitmap bitmap) {
+            synchronized (mLock) {
+                if (!mClosed && mNextClaim < mSteps.length) {
+                    mFreeBitmaps.add(bitmap);
+                    mLock.notifyAll();
+                    return;
+                }
+            }
+            //nothing is left to render, the bitmap goes back to the shared pool.
+            BitmapPool.getInstance().put(bitmap);
+        }
+    }
+
+    /**
+     * The factory creating the worker animations
+     */
+    private final AnimationFactory mFactory;
+
+    /**
+     * The number of workers rendering every stream
+     */
+    private final int mWorkers;
+
+    /**
+     * The background threads, created by the constructor and stopped by {@link #shutdown()}
+     */
+    private final ExecutorService mExecutor;
+
+    /**
+     * Creates a renderer with a worker per available core
+     * @param factory creates the animation of every worker
+     */
+    public CanvasAnimationRenderer(AnimationFactory factory) {
+        this(factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a renderer
+     * @param factory creates the animation of every worker
+     * @param workers the number of background threads
+     */
+    public CanvasAnimationRenderer(AnimationFactory factory, int workers) {
+        if (factory == null || workers < 1) {
+            throw new IllegalArgumentException("A factory and at least one worker are required");
+        }
+        mFactory = factory;
+        mWorkers = workers;
+        mExecutor = Executors.newFixedThreadPool(workers, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, "CanvasAnimationRenderer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Draws a view once into a new bitmap, to be used as the source of {@link #render(Bitmap, float[], int)}. Must be invoked from the main thread.
+     * @param view a laid out view
+     * @return a bitmap holding the view
+     * @throws IllegalArgumentException on API 26 and above, if the view draws {@link Bitmap.Config#HARDWARE} bitmaps which a software canvas cannot draw
+     */
+    public static Bitmap drawToBitmap(View view) {
+        Bitmap bitmap = Bitmap.createBitmap(view.getWidth(), view.getHeight(), Bitmap.Config.ARGB_8888);
+        view.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    /**
+     * Renders evenly spaced frames, from step 0 to step 1
+     * @param source the content to animate, must not be modified while rendering
+     * @param frameCount the number of frames, at least 2
+     * @param capacity the maximal number of frame bitmaps held at once
+     * @return the stream of rendered frames
+     */
+    public FrameStream render(Bitmap source, int frameCount, int capacity) {
+        if (frameCount < 2) {
+            throw new IllegalArgumentException("At least 2 frames are required");
+        }
+        float[] steps = new float[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            steps[i] = i / (float) (frameCount - 1);
+        }
+        return render(source, steps, capacity);
+    }
+
+    /**
+     * Renders a frame for every supplied step
+     * @param source the content to animate, must not be modified while rendering
+     * @param steps the step of every frame
+     * @param capacity the maximal number of frame bitmaps held at once, at least 1
+     * @return the stream of rendered frames
+     */
+    public FrameStream render(Bitmap source, float[] steps, int capacity) {
+        if (source == null || steps == null || capacity < 1) {
+            throw new IllegalArgumentException("A source, steps and a positive capacity are required");
+        }
+        FrameStream stream = new FrameStream(steps.clone(), source.getWidth(), source.getHeight(), capacity);
+        int workers = Math.min(mWorkers, Math.min(steps.length, capacity));
+        for (int i = 0; i < workers; i++) {
+            mExecutor.execute(new Worker(stream, source));
+        }
+        return stream;
+    }
+
+    /**
+     * Stops the background threads, streams which are still rendering will not complete
+     */
+    public void shutdown() {
+        mExecutor.shutdownNow();
+    }
+
+    /**
+     * Renders frames of a stream until none are left to claim
+     */
+    private final class Worker implements Runnable {
+
+        private final FrameStream mStream;
+        private final Bitmap mSource;
+
+        Worker(FrameStream stream, Bitmap source) {
+            mStream = stream;
+            mSource = source;
+        }
+
+        @Override
+        public void run() {
+            try {
+                OffscreenLayout layout = new OffscreenLayout(mSource);
+                CanvasAnimation animation = mFactory.newAnimation();
+                //both are bound to the main thread's frames and are not thread safe.
+                animation.setQualityGovernor(null);
+                animation.setMetricsListener(null);
+                layout.loadAnimation(animation);
+                layout.getAnimationState().setRunning(true);
+                Canvas canvas = new Canvas();
+                Bitmap[] claimed = new Bitmap[1];
+                int index;
+                while ((index = mStream.claim(claimed)) >= 0) {
+                    Bitmap bitmap = claimed[0];
+                    if (bitmap == null) {
+                        bitmap = BitmapPool.getInstance().get(mStream.mWidth, mStream.mHeight, Bitmap.Config.ARGB_8888);
+                    } else {
+                        bitmap.eraseColor(Color.TRANSPARENT);
+                    }
+                    canvas.setBitmap(bitmap);
+                    animation.draw(layout, canvas, mStream.mSteps[index]);
+                    mStream.publish(index, bitmap);
+                }
+                layout.getAnimationState().setRunning(false);
+                layout.getAnimationState().releaseSnapshot();
+            } catch (InterruptedException e) {
+                //the renderer was shut down, the stream can not complete.
+                mStream.fail(e);
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                mStream.fail(t);
+            }
+        }
+    }
+
+    /**
+     * A {@link CanvasLayout} backed by a bitmap, used by the workers
+     */
+    private static final class OffscreenLayout implements CanvasLayout {
+
+        private final Bitmap mSource;
+        private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        private final CanvasAnimationState mAnimationState = new CanvasAnimationState(this);
+        private CanvasAnimation mCanvasAnimation;
+        private float mAnimationStep = 1f;
+
+        OffscreenLayout(Bitmap source) {
+            mSource = source;
+            mAnimationState.setSize(source.getWidth(), source.getHeight());
+        }
+
+        @Override
+        public void commitDraw(Canvas canvas) {
+            canvas.drawBitmap(mSource, 0, 0, mPaint);
+        }
+
+        @Override
+        public void requestInvalidation(CanvasAnimation animation, float step) {
+            mCanvasAnimation = animation;
+            mAnimationStep = step;
+        }
+
+        @Override
+        public void loadAnimation(CanvasAnimation animation) {
+            mCanvasAnimation = animation;
+            animation.setLayout(this);
+        }
+
+        @Override
+        public CanvasAnimation getCurrentAnimation() {
+            return mCanvasAnimation;
+        }
+
+        @Override
+        public CanvasAnimationState getAnimationState() {
+            return mAnimationState;
+        }
+
+        @Override
+        public View getContentView() {
+            return null;
+        }
+
+        @Override
+        public void setAnimationStep(float animationStep) {
+            mAnimationStep = animationStep;
+        }
+
+        @Override
+        public float getAnimationStep() {
+            return mAnimationStep;
+        }
+    }
+}
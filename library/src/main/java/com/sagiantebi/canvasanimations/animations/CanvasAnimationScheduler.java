@@ -0,0 +1,403 @@
+/*
+ * CanvasAnimationScheduler.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.animation.TimeInterpolator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import com.sagiantebi.canvasanimations.layout.CanvasLayout;
+
+import java.util.ArrayList;
+
+/**
+ * A single frame driven scheduler for running many {@link CanvasAnimation}s at once, an alternative to {@link CanvasAnimation#newAnimatorInstance(float, float)}.<br/>
+ * Every scheduled (layout, animation) pair is advanced from one frame callback, instead of one {@link android.animation.ObjectAnimator} each.
+ * Entries are pooled, so scheduling and finishing animations does not allocate once the pool has grown to the number of concurrent animations.<br/>
+ * Must be used from the main thread.
+ */
+public final class CanvasAnimationScheduler {
+
+    /**
+     * The default interpolator, matching {@link android.animation.ValueAnimator}
+     */
+    private final static TimeInterpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    /**
+     * The frame interval used before API 16, where {@link Choreographer} is not available
+     */
+    private final static long FALLBACK_FRAME_DELAY_MS = 16;
+
+    /**
+     * A listener for scheduled animations which ran to their end
+     */
+    public interface OnScheduledAnimationEndListener {
+        /**
+         * Invoked after the last step of a scheduled animation was drawn, just before it stops running. Not invoked for cancelled animations.
+         * @param layout the animated layout
+         * @param animation the animation which ended
+         */
+        void onScheduledAnimationEnd(CanvasLayout layout, CanvasAnimation animation);
+    }
+
+    /**
+     * The shared instance
+     */
+    private static CanvasAnimationScheduler sInstance;
+
+    /**
+     * Returns the shared scheduler, creating it on first use.
+     * @return the shared scheduler instance
+     */
+    public static CanvasAnimationScheduler getInstance() {
+        if (sInstance == null) {
+            sInstance = new CanvasAnimationScheduler();
+        }
+        return sInstance;
+    }
+
+    /**
+     * The running entries
+     */
+    private final ArrayList<Entry> mEntries = new ArrayList<>();
+    /**
+     * Entries which reached their end during the last frame and are waiting for {@link #mFinishRunnable}
+     */
+    private final ArrayList<Entry> mFinished = new ArrayList<>();
+    /**
+     * Recycled entries
+     */
+    private final ArrayList<Entry> mPool = new ArrayList<>();
+
+    private final Handler mMainThreadHandler = new Handler(Looper.getMainLooper());
+    /**
+     * The frame callback, a {@link Choreographer} callback from API 16 and a delayed runnable before.
+     */
+    private final FrameDriver mFrameDriver;
+    /**
+     * True while a frame is requested from {@link #mFrameDriver}
+     */
+    private boolean mFrameRequested = false;
+
+    /**
+     * Stops the finished animations. posted so the final step is drawn while the animation is still running.
+     */
+    private final Runnable mFinishRunnable = new Runnable() {
+        @Override
+        public void run() {
+            //removed before the listener runs, which may schedule or cancel any layout.
+            while (!mFinished.isEmpty()) {
+                Entry entry = mFinished.remove(mFinished.size() - 1);
+                if (entry.listener != null) {
+                    entry.listener.onScheduledAnimationEnd(entry.layout, entry.animation);
+                }
+                //the animation may have been scheduled again by the listener.
+                if (indexOf(mEntries, entry.layout) < 0) {
+                    entry.layout.getAnimationState().setRunning(false);
+                }
+                recycle(entry);
+            }
+        }
+    };
+
+    private CanvasAnimationScheduler() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mFrameDriver = new ChoreographerFrameDriver(this);
+        } else {
+            mFrameDriver = new HandlerFrameDriver(this, mMainThreadHandler);
+        }
+    }
+
+    /**
+     * Schedules an animation with the default interpolator and no start delay
+     * @see #schedule(CanvasLayout, CanvasAnimation, float, float, long, long, TimeInterpolator, OnScheduledAnimationEndListener)
+     */
+    public void schedule(CanvasLayout layout, CanvasAnimation animation, float start, float end, long duration) {
+        schedule(layout, animation, start, end, duration, 0, null, null);
+    }
+
+    /**
+     * Schedules an animation with the default interpolator. Staggered animations are scheduled with increasing start delays.
+     * @see #schedule(CanvasLayout, CanvasAnimation, float, float, long, long, TimeInterpolator, OnScheduledAnimationEndListener)
+     */
+    public void schedule(CanvasLayout layout, CanvasAnimation animation, float start, float end, long duration, long startDelay) {
+        schedule(layout, animation, start, end, duration, startDelay, null, null);
+    }
+
+    /**
+     * Schedules an animation on a layout, replacing any animation already scheduled on it and cancelling the layout's animator.<br/>
+     * The animation is loaded into the layout, starts running and draws the start step immediately, so a delayed animation holds its start step
+     * until the delay passes. The delay and duration are measured from the next frame.
+     * @param layout the layout to animate
+     * @param animation the animation to run
+     * @param start the step to start from
+     * @param end the step to end at
+     * @param duration the duration in milliseconds
+     * @param startDelay the delay before the animation starts running, in milliseconds
+     * @param interpolator the interpolator to use, or null for the default one
+     * @param listener an optional listener for the end of the animation, may be null
+     */
+    public void schedule(CanvasLayout layout, CanvasAnimation animation, float start, float end, long duration, long startDelay,
+                         TimeInterpolator interpolator, OnScheduledAnimationEndListener listener) {
+        cancel(layout);
+        //take the layout over from its animator, including an end it posted just before.
+        layout.getAnimationState().stopAnimator();
+        if (layout.getCurrentAnimation() != animation) {
+            layout.loadAnimation(animation);
+        } else {
+            //precompute for the current size before the first frame, as loading the animation does.
+            animation.setLayout(layout);
+        }
+        //running from the first frame, otherwise the layout would draw its plain content until the delay passes.
+        layout.getAnimationState().setRunning(true);
+        layout.requestInvalidation(animation, start);
+        Entry entry = obtain();
+        entry.layout = layout;
+        entry.animation = animation;
+        entry.start = start;
+        entry.end = end;
+        entry.duration = duration;
+        entry.startDelay = startDelay;
+        entry.interpolator = interpolator != null ? interpolator : DEFAULT_INTERPOLATOR;
+        entry.listener = listener;
+        entry.startTime = -1;
+        mEntries.add(entry);
+        requestFrame();
+    }
+
+    /**
+     * Cancels the animation scheduled on a layout, if any. The animation stops running immediately and its listener is not invoked,
+     * even if the animation reached its end during the current frame.
+     * @param layout the animated layout
+     */
+    public void cancel(CanvasLayout layout) {
+        int index = indexOf(mEntries, layout);
+        if (index >= 0) {
+            Entry entry = removeAt(index);
+            entry.layout.getAnimationState().setRunning(false);
+            recycle(entry);
+        }
+        index = indexOf(mFinished, layout);
+        if (index >= 0) {
+            Entry entry = mFinished.remove(index);
+            entry.layout.getAnimationState().setRunning(false);
+            recycle(entry);
+        }
+    }
+
+    /**
+     * Cancels the animation scheduled on a layout without creating the shared scheduler, invoked when an animator takes the layout over
+     * @param layout the animated layout
+     */
+    static void cancelScheduled(CanvasLayout layout) {
+        if (sInstance != null) {
+            sInstance.cancel(layout);
+        }
+    }
+
+    /**
+     * Cancels all scheduled animations
+     * @see #cancel(CanvasLayout)
+     */
+    public void cancelAll() {
+        for (int i = mEntries.size() - 1; i >= 0; i--) {
+            Entry entry = mEntries.remove(i);
+            entry.layout.getAnimationState().setRunning(false);
+            recycle(entry);
+        }
+        for (int i = mFinished.size() - 1; i >= 0; i--) {
+            Entry entry = mFinished.remove(i);
+            entry.layout.getAnimationState().setRunning(false);
+            recycle(entry);
+        }
+        mMainThreadHandler.removeCallbacks(mFinishRunnable);
+    }
+
+    /**
+     * Returns if an animation is scheduled on a layout
+     * @param layout the layout to check
+     * @return true if an animation is scheduled and has not ended yet
+     */
+    public boolean isScheduled(CanvasLayout layout) {
+        return indexOf(mEntries, layout) >= 0;
+    }
+
+    /**
+     * Advances all scheduled animations, invoked by {@link #mFrameDriver}
+     * @param frameTimeMillis the time of the frame, in milliseconds
+     */
+    void doFrame(long frameTimeMillis) {
+        mFrameRequested = false;
+        int i = 0;
+        while (i < mEntries.size()) {
+            Entry entry = mEntries.get(i);
+            if (entry.startTime < 0) {
+                entry.startTime = frameTimeMillis;
+            }
+            long elapsed = frameTimeMillis - entry.startTime - entry.startDelay;
+            if (elapsed < 0) {
+                i++;
+                continue;
+            }
+            float fraction = entry.duration > 0 ? Math.min(1f, elapsed / (float) entry.duration) : 1f;
+            float interpolated = entry.interpolator.getInterpolation(fraction);
+            entry.layout.setAnimationStep(entry.start + (entry.end - entry.start) * interpolated);
+            if (fraction >= 1f) {
+                entry.layout.getAnimationState().flushSkippedStep();
+                mFinished.add(removeAt(i));
+            } else {
+                i++;
+            }
+        }
+        if (!mFinished.isEmpty()) {
+            mMainThreadHandler.removeCallbacks(mFinishRunnable);
+            mMainThreadHandler.post(mFinishRunnable);
+        }
+        if (!mEntries.isEmpty()) {
+            requestFrame();
+        }
+    }
+
+    /**
+     * Requests a frame callback unless one is already pending
+     */
+    private void requestFrame() {
+        if (!mFrameRequested) {
+            mFrameRequested = true;
+            mFrameDriver.requestFrame();
+        }
+    }
+
+    /**
+     * Finds the entry of a layout
+     * @param entries the entries to search, {@link #mEntries} or {@link #mFinished}
+     * @param layout the layout
+     * @return the index of the entry in the supplied list, or -1
+     */
+    private static int indexOf(ArrayList<Entry> entries, CanvasLayout layout) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).layout == layout) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes an entry without shifting the list, the order of the entries does not matter
+     * @param index the index of the entry
+     * @return the removed entry
+     */
+    private Entry removeAt(int index) {
+        int last = mEntries.size() - 1;
+        Entry entry = mEntries.get(index);
+        mEntries.set(index, mEntries.get(last));
+        mEntries.remove(last);
+        return entry;
+    }
+
+    private Entry obtain() {
+        int size = mPool.size();
+        return size > 0 ? mPool.remove(size - 1) : new Entry();
+    }
+
+    private void recycle(Entry entry) {
+        entry.layout = null;
+        entry.animation = null;
+        entry.interpolator = null;
+        entry.listener = null;
+        mPool.add(entry);
+    }
+
+    /**
+     * A scheduled animation
+     */
+    private static final class Entry {
+        CanvasLayout layout;
+        CanvasAnimation animation;
+        float start;
+        float end;
+        long duration;
+        long startDelay;
+        TimeInterpolator interpolator;
+        OnScheduledAnimationEndListener listener;
+        /**
+         * The time of the first frame after scheduling, or -1 before it
+         */
+        long startTime;
+    }
+
+    /**
+     * Requests frame callbacks for the scheduler
+     */
+    private interface FrameDriver {
+        void requestFrame();
+    }
+
+    /**
+     * A frame driver using {@link Choreographer}, available from API 16
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static final class ChoreographerFrameDriver implements FrameDriver, Choreographer.FrameCallback {
+
+        private final CanvasAnimationScheduler mScheduler;
+        private final Choreographer mChoreographer = Choreographer.getInstance();
+
+        ChoreographerFrameDriver(CanvasAnimationScheduler scheduler) {
+            mScheduler = scheduler;
+        }
+
+        @Override
+        public void requestFrame() {
+            mChoreographer.postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mScheduler.doFrame(frameTimeNanos / 1000000L);
+        }
+    }
+
+    /**
+     * A frame driver posting delayed runnables, used before API 16
+     */
+    private static final class HandlerFrameDriver implements FrameDriver, Runnable {
+
+        private final CanvasAnimationScheduler mScheduler;
+        private final Handler mHandler;
+
+        HandlerFrameDriver(CanvasAnimationScheduler scheduler, Handler handler) {
+            mScheduler = scheduler;
+            mHandler = handler;
+        }
+
+        @Override
+        public void requestFrame() {
+            mHandler.postDelayed(this, FALLBACK_FRAME_DELAY_MS);
+        }
+
+        @Override
+        public void run() {
+            mScheduler.doFrame(System.nanoTime() / 1000000L);
+        }
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * CanvasAnimationState.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import com.sagiantebi.canvasanimations.layout.CanvasLayout;
+
+import java.util.ArrayList;
+
+/**
+ * The per layout state of a {@link CanvasAnimation}, owned by a {@link CanvasLayout}.<br/>
+ * Keeping the running flag, size and buffers here lets a single animation instance serve any number of layouts at once.
+ */
+public final class CanvasAnimationState {
+
+    /**
+     * Main thread handler for posting the change to {@link #mRunning} flag properly, shared by all instances
+     */
+    private final static Handler sMainThreadHandler = new Handler(Looper.getMainLooper());
+    /**
+     * The defaults restored on the reused animator, matching a newly created {@link ObjectAnimator}
+     */
+    private final static long DEFAULT_DURATION = 300;
+    private final static TimeInterpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    /**
+     * The layout owning this state
+     */
+    private final CanvasLayout mLayout;
+    /**
+     * Optimization flag, makes sure we only invoke the animation drawing when the animator is running
+     */
+    private boolean mRunning = false;
+    /**
+     * The size of the layout, as reported by {@link #setSize(int, int)}
+     */
+    private int mWidth = 0;
+    private int mHeight = 0;
+    /**
+     * The cached rendering of the layout's children, valid only while running with {@link CanvasAnimation#setSnapshotEnabled(boolean)}.<br/>
+     * Obtained from the {@link BitmapPool}, and returned by the first frame which no longer draws it.
+     */
+    Bitmap mSnapshot;
+    /**
+     * True while {@link #mSnapshot} was captured ahead of a run by {@link CanvasAnimation#prepare(CanvasLayout)} and must be kept until the run starts
+     */
+    boolean mSnapshotPrepared = false;
+    /**
+     * True once the children failed to render into a snapshot, i.e. by drawing hardware bitmaps. Cleared when the run ends.
+     */
+    boolean mSnapshotUnsupported = false;
+    /**
+     * The time of the last step change drawn under {@link CanvasAnimation#setTargetFrameRate(int)}, and whether a later one was skipped
+     */
+    long mLastStepTimeNanos = 0;
+    boolean mStepPending = false;
+    /**
+     * The time at which a skipped step is drawn by {@link #mFlushRunnable}, and whether the runnable is posted
+     */
+    private long mStepFlushTimeNanos = 0;
+    private boolean mStepFlushPosted = false;
+    /**
+     * The region of the snapshot invalidated by the children since it was last rendered, see {@link #invalidateSnapshot(Rect)}
+     */
+    final Rect mSnapshotDirty = new Rect();
+    /**
+     * The tiled snapshot, created on first use with {@link CanvasAnimation#setSnapshotTileSize(int)} and kept for later runs
+     */
+    SnapshotTiles mSnapshotTiles;
+    /**
+     * The geometry of the last {@link SegmentedAnimation} drawn on the layout, created on first use and kept for later runs
+     */
+    SegmentGeometry mSegmentGeometry;
+    /**
+     * The geometry of the last {@link PathRevealAnimation} drawn on the layout, created on first use and kept for later runs
+     */
+    PathGeometry mPathGeometry;
+    /**
+     * The metrics of the current run, allocated once by the first animation recording metrics on this layout
+     */
+    CanvasAnimationMetrics mMetrics;
+    /**
+     * The animation recording metrics during the current run, null when not recording
+     */
+    CanvasAnimation mMetricsAnimation;
+    /**
+     * The animator returned by {@link CanvasAnimation#newAnimatorInstance(CanvasLayout, float, float)}, created once and reused
+     */
+    private ObjectAnimator mAnimator;
+    /**
+     * The values {@link #mAnimator} currently animates between
+     */
+    private float mAnimatorStart;
+    private float mAnimatorEnd;
+
+    /**
+     * Creates the state of a layout
+     * @param layout the layout owning this state
+     */
+    public CanvasAnimationState(CanvasLayout layout) {
+        mLayout = layout;
+    }
+
+    /**
+     * Getter for the layout owning this state
+     * @return the layout
+     */
+    public CanvasLayout getLayout() {
+        return mLayout;
+    }
+
+    /**
+     * Returns if an animation is currently running on the layout
+     * @return true if the animation is currently running, false otherwise
+     */
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * Setter for the running state. Stopping releases any buffers held for the animation.
+     * @param running the desired state, true to make the animation draw, false otherwise.
+     * @see CanvasAnimation#setRunning(boolean)
+     */
+    public void setRunning(boolean running) {
+        boolean wasRunning = mRunning;
+        mRunning = running;
+        if (!running) {
+            if (wasRunning) {
+                if (hasSnapshot() && mLayout.getCurrentAnimation() != null) {
+                    //the last frame drew the snapshot, redraw so it can be released.
+                    mLayout.requestInvalidation(mLayout.getCurrentAnimation(), mLayout.getAnimationStep());
+                }
+                mSnapshotUnsupported = false;
+                mStepPending = false;
+                if (mStepFlushPosted) {
+                    sMainThreadHandler.removeCallbacks(mFlushRunnable);
+                    mStepFlushPosted = false;
+                }
+                deliverMetrics();
+            }
+        } else if (!wasRunning) {
+            mSnapshotPrepared = false;
+            mLastStepTimeNanos = 0;
+            mStepPending = false;
+            if (mMetrics != null) {
+                mMetricsAnimation = null;
+                mMetrics.reset();
+            }
+        }
+    }
+
+    /**
+     * Draws the last step if it was skipped by {@link CanvasAnimation#shouldDrawStep(CanvasLayout, float)}, invoked when the step stops changing
+     */
+    void flushSkippedStep() {
+        if (mStepPending) {
+            mStepPending = false;
+            mLastStepTimeNanos = System.nanoTime();
+            CanvasAnimation animation = mLayout.getCurrentAnimation();
+            if (animation != null) {
+                mLayout.requestInvalidation(animation, mLayout.getAnimationStep());
+            }
+        }
+    }
+
+    /**
+     * Makes sure a skipped step is drawn even if no later step arrives
+     * @param timeNanos the {@link System#nanoTime()} at which the skipped step may be drawn
+     */
+    void postSkippedStepFlush(long timeNanos) {
+        mStepFlushTimeNanos = timeNanos;
+        if (!mStepFlushPosted) {
+            mStepFlushPosted = true;
+            long delayNanos = Math.max(0, timeNanos - System.nanoTime());
+            sMainThreadHandler.postDelayed(mFlushRunnable, (delayNanos + 999999) / 1000000);
+        }
+    }
+
+    /**
+     * Draws a skipped step once its time has come, see {@link #postSkippedStepFlush(long)}
+     */
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mStepFlushPosted = false;
+            if (mStepPending) {
+                if (System.nanoTime() < mStepFlushTimeNanos) {
+                    //a later step was drawn meanwhile, wait for the interval since that one.
+                    postSkippedStepFlush(mStepFlushTimeNanos);
+                } else {
+                    flushSkippedStep();
+                }
+            }
+        }
+    };
+
+    /**
+     * Returns if a snapshot of the children is currently held, meaning child changes must be reported by {@link #invalidateSnapshot(Rect)}
+     * @return true if a single bitmap or tiled snapshot is held
+     */
+    public boolean hasSnapshot() {
+        return mSnapshot != null || (mSnapshotTiles != null && mSnapshotTiles.isActive());
+    }
+
+    /**
+     * Marks a region of the snapshot as changed, it is rendered again before the next animated frame.
+     * Layouts should report child invalidations while {@link #hasSnapshot()}, so animated children stay current.
+     * @param dirty the changed region, in layout coordinates
+     */
+    public void invalidateSnapshot(Rect dirty) {
+        if (hasSnapshot()) {
+            mSnapshotDirty.union(dirty);
+        }
+    }
+
+    /**
+     * Returns the snapshot to the {@link BitmapPool}, once no frame being recorded draws it
+     */
+    void releaseSnapshot() {
+        mSnapshotPrepared = false;
+        mSnapshotDirty.setEmpty();
+        if (mSnapshot != null) {
+            BitmapPool.getInstance().put(mSnapshot);
+            mSnapshot = null;
+        }
+        if (mSnapshotTiles != null && mSnapshotTiles.isActive()) {
+            mSnapshotTiles.release();
+        }
+    }
+
+    /**
+     * Returns a snapshot captured by {@link CanvasAnimation#prepare(CanvasLayout)} to the {@link BitmapPool}, if its run has not started.<br/>
+     * Layouts invoke this when detached or when another animation is loaded, callers abandoning a prepared run may invoke it as well.
+     */
+    public void releasePreparedSnapshot() {
+        if (mSnapshotPrepared && !mRunning) {
+            releaseSnapshot();
+        }
+    }
+
+    /**
+     * Returns the tiled snapshot, releasing a single bitmap snapshot if one is held
+     * @return the tiles, configured by the caller
+     */
+    SnapshotTiles obtainSnapshotTiles() {
+        if (mSnapshot != null) {
+            BitmapPool.getInstance().put(mSnapshot);
+            mSnapshot = null;
+        }
+        if (mSnapshotTiles == null) {
+            mSnapshotTiles = new SnapshotTiles();
+        }
+        return mSnapshotTiles;
+    }
+
+    /**
+     * Notifies that a step change did not cause a redraw, invoked by layouts for the metrics of the current run.
+     */
+    public void onStepSkipped() {
+        if (mMetricsAnimation != null) {
+            mMetrics.recordSkippedStep();
+        }
+    }
+
+    /**
+     * Starts recording metrics for the current run, if not recording already
+     * @param animation the animation recording the metrics
+     * @return the metrics of the current run
+     */
+    CanvasAnimationMetrics beginMetrics(CanvasAnimation animation) {
+        if (mMetrics == null) {
+            mMetrics = new CanvasAnimationMetrics();
+        }
+        if (mMetricsAnimation != animation) {
+            mMetricsAnimation = animation;
+            mMetrics.reset();
+        }
+        return mMetrics;
+    }
+
+    /**
+     * Delivers the metrics of the ended run to the animation which recorded them
+     */
+    private void deliverMetrics() {
+        CanvasAnimation animation = mMetricsAnimation;
+        if (animation != null) {
+            mMetricsAnimation = null;
+            animation.dispatchMetrics(mLayout, mMetrics);
+            mMetrics.reset();
+        }
+    }
+
+    /**
+     * Updates the size of the layout. Layouts must report every size change, animations read it instead of measuring the layout each frame.
+     * @param width the new width
+     * @param height the new height
+     */
+    public void setSize(int width, int height) {
+        mWidth = width;
+        mHeight = height;
+    }
+
+    /**
+     * Getter for the width of the layout
+     * @return the last width reported by {@link #setSize(int, int)}
+     */
+    public int getWidth() {
+        return mWidth;
+    }
+
+    /**
+     * Getter for the height of the layout
+     * @return the last height reported by {@link #setSize(int, int)}
+     */
+    public int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * Returns the animator of the layout, created on first use and reset afterwards.
+     * @param start the value to start from
+     * @param end the value to end at
+     * @return the animator, animating the layout's step between the supplied values
+     */
+    Animator obtainAnimator(float start, float end) {
+        ObjectAnimator animator = mAnimator;
+        if (animator == null) {
+            animator = ObjectAnimator.ofFloat(mLayout, CanvasLayout.ANIMATION_STEP_PROPERTY, start, end);
+            animator.addListener(mAnimatorListener);
+            mAnimator = animator;
+        } else {
+            resetAnimator(animator);
+            if (mAnimatorStart != start || mAnimatorEnd != end) {
+                animator.setFloatValues(start, end);
+            }
+        }
+        mAnimatorStart = start;
+        mAnimatorEnd = end;
+        return animator;
+    }
+
+    /**
+     * Creates the animator of the layout ahead of {@link #obtainAnimator(float, float)}, if it was not created yet
+     */
+    void prepareAnimator() {
+        if (mAnimator == null) {
+            obtainAnimator(0f, 1f);
+        }
+    }
+
+    /**
+     * Cancels the animator of the layout if it was started
+     */
+    void cancelAnimator() {
+        if (mAnimator != null && mAnimator.isStarted()) {
+            mAnimator.cancel();
+        }
+    }
+
+    /**
+     * Cancels the animator of the layout and drops the end posted by its last run, so another driver can run the layout.<br/>
+     * Without this, an end posted by an animator which just ended would stop a run started from its end listener.
+     */
+    void stopAnimator() {
+        cancelAnimator();
+        //cancelling ends the animator, which posts the end again.
+        sMainThreadHandler.removeCallbacks(mEndRunnable);
+    }
+
+    /**
+     * Restores the reused animator to the state of a newly created one, keeping only {@link #mAnimatorListener}
+     * @param animator the animator to reset
+     */
+    private void resetAnimator(ObjectAnimator animator) {
+        ArrayList<Animator.AnimatorListener> listeners = animator.getListeners();
+        if (listeners != null) {
+            for (int i = listeners.size() - 1; i >= 0; i--) {
+                Animator.AnimatorListener listener = listeners.get(i);
+                if (listener != mAnimatorListener) {
+                    animator.removeListener(listener);
+                }
+            }
+        }
+        animator.removeAllUpdateListeners();
+        animator.setDuration(DEFAULT_DURATION);
+        animator.setStartDelay(0);
+        animator.setInterpolator(DEFAULT_INTERPOLATOR);
+        animator.setRepeatCount(0);
+        animator.setRepeatMode(ValueAnimator.RESTART);
+    }
+
+    /**
+     * Ends the animation, posted when the animator ends
+     */
+    private final Runnable mEndRunnable = new Runnable() {
+        @Override
+        public void run() {
+            setRunning(false);
+        }
+    };
+
+    /**
+     * An animator listener adapter which listens on the attached animator
+     */
+    private final Animator.AnimatorListener mAnimatorListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            super.onAnimationCancel(animation);
+            setRunning(false);
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            super.onAnimationEnd(animation);
+            //the final step must be drawn even if the frame rate limit skipped it.
+            flushSkippedStep();
+            //post a runnable for ending the animation, giving any other listeners an opportunity to do something important.
+            sMainThreadHandler.post(mEndRunnable);
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            super.onAnimationStart(animation);
+            //a restart must not be stopped by the end of the previous run.
+            sMainThreadHandler.removeCallbacks(mEndRunnable);
+            setRunning(true);
+        }
+    };
+}
@@ -0,0 +1,125 @@
+/*
+ * CircularRevealAnimation.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/**
+ * A circular reveal, growing from a point until the whole layout is covered. Works on every API level, unlike {@code ViewAnimationUtils}.
+ */
+public class CircularRevealAnimation extends PathRevealAnimation {
+
+    /**
+     * The center, relative to the layout size unless {@link #mAbsoluteCenter} is set
+     */
+    private float mCenterX;
+    private float mCenterY;
+    private boolean mAbsoluteCenter = false;
+
+    /**
+     * The indices of the geometry values - the center in pixels and the distance to the farthest corner
+     */
+    private final static int GEOMETRY_CENTER_X = 0;
+    private final static int GEOMETRY_CENTER_Y = 1;
+    private final static int GEOMETRY_MAX_RADIUS = 2;
+    private final static int GEOMETRY_SIZE = 3;
+
+    /**
+     * Creates this animation, revealing from the center of the layout
+     */
+    public CircularRevealAnimation() {
+        this(0.5f, 0.5f);
+    }
+
+    /**
+     * Creates this animation, revealing from a point relative to the layout size
+     * @param relativeX the x coordinate of the center, 0 being the left edge and 1 the right edge
+     * @param relativeY the y coordinate of the center, 0 being the top edge and 1 the bottom edge
+     */
+    public CircularRevealAnimation(float relativeX, float relativeY) {
+        super();
+        setRelativeCenter(relativeX, relativeY);
+    }
+
+    /**
+     * Sets the center relative to the layout size
+     * @param relativeX the x coordinate of the center, 0 being the left edge and 1 the right edge
+     * @param relativeY the y coordinate of the center, 0 being the top edge and 1 the bottom edge
+     */
+    public void setRelativeCenter(float relativeX, float relativeY) {
+        mCenterX = relativeX;
+        mCenterY = relativeY;
+        mAbsoluteCenter = false;
+        invalidateGeometry();
+    }
+
+    /**
+     * Sets the center in layout coordinates, i.e. a touch point. The center is shared by every layout using this instance.
+     * @param x the x coordinate of the center, in pixels
+     * @param y the y coordinate of the center, in pixels
+     */
+    public void setCenter(float x, float y) {
+        mCenterX = x;
+        mCenterY = y;
+        mAbsoluteCenter = true;
+        invalidateGeometry();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getGeometrySize() {
+        return GEOMETRY_SIZE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onGeometryChanged(int width, int height, float[] outGeometry) {
+        float centerX = mAbsoluteCenter ? mCenterX : mCenterX * width;
+        float centerY = mAbsoluteCenter ? mCenterY : mCenterY * height;
+        float dx = Math.max(centerX, width - centerX);
+        float dy = Math.max(centerY, height - centerY);
+        outGeometry[GEOMETRY_CENTER_X] = centerX;
+        outGeometry[GEOMETRY_CENTER_Y] = centerY;
+        outGeometry[GEOMETRY_MAX_RADIUS] = (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void buildClipPath(Path path, float step, int width, int height, float[] geometry) {
+        path.addCircle(geometry[GEOMETRY_CENTER_X], geometry[GEOMETRY_CENTER_Y], geometry[GEOMETRY_MAX_RADIUS] * step, Path.Direction.CW);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void computeClipBounds(float step, int width, int height, float[] geometry, RectF outBounds) {
+        float centerX = geometry[GEOMETRY_CENTER_X];
+        float centerY = geometry[GEOMETRY_CENTER_Y];
+        float radius = geometry[GEOMETRY_MAX_RADIUS] * step;
+        outBounds.set(centerX - radius, centerY - radius, centerX + radius, centerY + radius);
+    }
+}
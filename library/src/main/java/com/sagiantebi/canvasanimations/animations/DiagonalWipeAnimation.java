@@ -0,0 +1,57 @@
+/*
+ * DiagonalWipeAnimation.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/**
+ * A diagonal wipe, revealing the layout from the top left corner towards the bottom right corner
+ */
+public class DiagonalWipeAnimation extends PathRevealAnimation {
+
+    /**
+     * {@inheritDoc}
+     */
+    public DiagonalWipeAnimation() {
+        super();
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * The revealed part is the triangle cut by the line x + y = step * (width + height), the parts outside the layout are never drawn.
+     */
+    @Override
+    protected void buildClipPath(Path path, float step, int width, int height, float[] geometry) {
+        float distance = step * (width + height);
+        path.moveTo(0, 0);
+        path.lineTo(distance, 0);
+        path.lineTo(0, distance);
+        path.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void computeClipBounds(float step, int width, int height, float[] geometry, RectF outBounds) {
+        float distance = step * (width + height);
+        outBounds.set(0, 0, Math.min(distance, width), Math.min(distance, height));
+    }
+}
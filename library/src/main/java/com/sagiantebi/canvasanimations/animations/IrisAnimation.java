@@ -0,0 +1,46 @@
+/*
+ * IrisAnimation.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+/**
+ * An iris reveal - a hexagonal aperture opening from the center of the layout, turning as the blades open
+ */
+public class IrisAnimation extends PolygonRevealAnimation {
+
+    /**
+     * The default number of blades
+     */
+    private final static int NUMBER_OF_BLADES = 6;
+
+    /**
+     * Creates this animation with the default amount of blades
+     */
+    public IrisAnimation() {
+        this(NUMBER_OF_BLADES);
+    }
+
+    /**
+     * Creates this animation with the supplied amount of blades
+     * @param numberOfBlades the number of blades, at least 3
+     */
+    public IrisAnimation(int numberOfBlades) {
+        super(regularPolygon(numberOfBlades));
+        setRotation(360f / numberOfBlades);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * PathGeometry.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+/**
+ * The size dependent geometry of a {@link PathRevealAnimation} for a single layout, held by the layout's {@link CanvasAnimationState}.<br/>
+ * Keeping it per layout lets one animation instance serve layouts of different sizes without computing the geometry on every frame.
+ */
+final class PathGeometry {
+
+    /**
+     * The animation and the configuration version the geometry was computed for
+     */
+    PathRevealAnimation mOwner;
+    int mVersion;
+
+    /**
+     * The size the geometry was computed for
+     */
+    int mWidth = 0;
+    int mHeight = 0;
+
+    /**
+     * The values computed by {@link PathRevealAnimation#onGeometryChanged(int, int, float[])}
+     */
+    float[] mValues = new float[0];
+
+    /**
+     * Returns if the geometry was computed for the supplied parameters
+     * @param owner the animation drawing
+     * @param version the configuration version of the animation
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @return true if the geometry can be used as is
+     */
+    boolean isValid(PathRevealAnimation owner, int version, int width, int height) {
+        return mOwner == owner && mVersion == version && mWidth == width && mHeight == height;
+    }
+
+    /**
+     * Computes the geometry, reusing the current storage when possible
+     * @param owner the animation drawing
+     * @param version the configuration version of the animation
+     * @param width the width of the layout
+     * @param height the height of the layout
+     */
+    void set(PathRevealAnimation owner, int version, int width, int height) {
+        int size = owner.getGeometrySize();
+        if (mValues.length != size) {
+            mValues = new float[size];
+        }
+        owner.onGeometryChanged(width, height, mValues);
+        mOwner = owner;
+        mVersion = version;
+        mWidth = width;
+        mHeight = height;
+    }
+}
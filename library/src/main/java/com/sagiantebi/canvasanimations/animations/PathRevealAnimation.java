@@ -0,0 +1,194 @@
+/*
+ * PathRevealAnimation.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Canvas;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+
+/**
+ * A base for reveal animations clipping the layout to an arbitrary shape.<br/>
+ * The clip {@link Path} is reused via {@link Path#rewind()} on every frame. Subclasses compute their size dependent geometry in {@link #onGeometryChanged(int, int, float[])},
+ * which is kept per layout by its {@link CanvasAnimationState} - one instance can serve layouts of different sizes.
+ * Hardware accelerated canvases only support path clipping since API 18, below that the clip falls back to the bounds of the shape.
+ */
+public abstract class PathRevealAnimation extends CanvasAnimation {
+
+    /**
+     * The clip path, rebuilt on every frame
+     */
+    private final Path mClipPath = new Path();
+    /**
+     * Scratch space for the bounds of the clip
+     */
+    private final RectF mClipBounds = new RectF();
+    private final RectF mOtherBounds = new RectF();
+    /**
+     * Scratch space for the geometry of {@link #computeDirtyRegion(float, float, int, int, Rect)}, which is not bound to a layout
+     */
+    private float[] mDirtyGeometry;
+
+    /**
+     * Incremented by {@link #invalidateGeometry()}, invalidating the {@link PathGeometry} of every layout
+     */
+    private int mGeometryVersion = 0;
+
+    /**
+     * Builds the clip path for a step. The path is empty when invoked and must not be kept.
+     * @param path the path to build
+     * @param step the current animation step, between 0 and 1 exclusive
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @param geometry the geometry computed by {@link #onGeometryChanged(int, int, float[])} for the layout
+     */
+    protected abstract void buildClipPath(Path path, float step, int width, int height, float[] geometry);
+
+    /**
+     * Computes the bounds of the clip for a step, without building the path
+     * @param step the animation step, between 0 and 1
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @param geometry the geometry computed by {@link #onGeometryChanged(int, int, float[])} for the layout
+     * @param outBounds receives the bounds
+     */
+    protected abstract void computeClipBounds(float step, int width, int height, float[] geometry, RectF outBounds);
+
+    /**
+     * Getter for the number of geometry values computed by {@link #onGeometryChanged(int, int, float[])}
+     * @return the number of values, 0 by default
+     */
+    protected int getGeometrySize() {
+        return 0;
+    }
+
+    /**
+     * Invoked when the geometry of a layout must be computed - its size changed or {@link #invalidateGeometry()} was called.
+     * The values are kept by the layout and passed to the other methods, so they must only depend on the parameters and the configuration of this animation.
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @param outGeometry receives the geometry, {@link #getGeometrySize()} values
+     */
+    protected void onGeometryChanged(int width, int height, float[] outGeometry) {
+
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onPrecompute(int width, int height) {
+        obtainGeometry(width, height);
+    }
+
+    /**
+     * Returns the geometry of the current layout, computing it if the size or the configuration changed
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @return the geometry values
+     */
+    private float[] obtainGeometry(int width, int height) {
+        CanvasAnimationState state = getLayout().getAnimationState();
+        PathGeometry geometry = state.mPathGeometry;
+        if (geometry == null) {
+            geometry = new PathGeometry();
+            state.mPathGeometry = geometry;
+        }
+        if (!geometry.isValid(this, mGeometryVersion, width, height)) {
+            geometry.set(this, mGeometryVersion, width, height);
+        }
+        return geometry.mValues;
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * Builds the path once, so its storage is allocated before the first frame.
+     */
+    @Override
+    protected void onPrepare(int width, int height) {
+        mClipPath.rewind();
+        buildClipPath(mClipPath, 0.5f, width, height, obtainGeometry(width, height));
+        mClipPath.rewind();
+    }
+
+    /**
+     * Forces {@link #onGeometryChanged(int, int, float[])} to be invoked again before the next frame of every layout, for subclasses changing their parameters
+     */
+    protected void invalidateGeometry() {
+        mGeometryVersion++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param canvas The canvas of the layout
+     * @param step The current animation step
+     */
+    @Override
+    protected void dispatchDraw(Canvas canvas, float step) {
+        if (step <= 0f) {
+            //nothing is revealed yet.
+            return;
+        }
+        if (step >= 1f) {
+            //the whole layout is revealed, no clip is needed.
+            drawContent(canvas);
+            return;
+        }
+        int w = getLayoutWidth();
+        int h = getLayoutHeight();
+        float[] geometry = obtainGeometry(w, h);
+        computeClipBounds(step, w, h, geometry, mClipBounds);
+        int count = canvas.save();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2 || !canvas.isHardwareAccelerated()) {
+            mClipPath.rewind();
+            buildClipPath(mClipPath, step, w, h, geometry);
+            canvas.clipPath(mClipPath);
+        } else {
+            //path clipping is not supported by the hardware renderer, clip to the bounds instead.
+            canvas.clipRect(mClipBounds);
+        }
+        drawContent(canvas, mClipBounds.left, mClipBounds.top, mClipBounds.right, mClipBounds.bottom);
+        canvas.restoreToCount(count);
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * The region spans the bounds of both clips. The geometry is computed for every call, as the region is not computed for a specific layout.
+     */
+    @Override
+    public void computeDirtyRegion(float fromStep, float toStep, int width, int height, Rect outRegion) {
+        if (fromStep == toStep) {
+            outRegion.setEmpty();
+            return;
+        }
+        if (mDirtyGeometry == null || mDirtyGeometry.length != getGeometrySize()) {
+            mDirtyGeometry = new float[getGeometrySize()];
+        }
+        onGeometryChanged(width, height, mDirtyGeometry);
+        computeClipBounds(Math.max(0f, Math.min(1f, fromStep)), width, height, mDirtyGeometry, mClipBounds);
+        computeClipBounds(Math.max(0f, Math.min(1f, toStep)), width, height, mDirtyGeometry, mOtherBounds);
+        mClipBounds.union(mOtherBounds);
+        if (!mClipBounds.intersect(0, 0, width, height)) {
+            outRegion.setEmpty();
+            return;
+        }
+        mClipBounds.roundOut(outRegion);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * PolygonRevealAnimation.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/**
+ * A reveal growing a convex polygon from the center of the layout, optionally rotating it while it grows.<br/>
+ * The polygon is scaled so it covers the whole layout when the animation ends.
+ */
+public class PolygonRevealAnimation extends PathRevealAnimation {
+
+    /**
+     * The polygon vertices as x, y pairs, around the origin
+     */
+    private final float[] mVertices;
+    /**
+     * The distance from the origin to the nearest edge of the polygon
+     */
+    private final float mInradius;
+    /**
+     * The distance from the origin to the farthest vertex of the polygon
+     */
+    private final float mCircumradius;
+    /**
+     * The rotation applied when the animation starts, unwinding to 0 when it ends
+     */
+    private float mRotation = 0f;
+
+    /**
+     * The indices of the geometry values - the center and the scale covering the layout at the end of the animation
+     */
+    private final static int GEOMETRY_CENTER_X = 0;
+    private final static int GEOMETRY_CENTER_Y = 1;
+    private final static int GEOMETRY_SCALE = 2;
+    private final static int GEOMETRY_SIZE = 3;
+
+    /**
+     * Creates this animation
+     * @param vertices the vertices of a convex polygon surrounding the origin, as x, y pairs. The array is copied.
+     */
+    public PolygonRevealAnimation(float[] vertices) {
+        super();
+        if (vertices == null || vertices.length < 6 || vertices.length % 2 != 0) {
+            throw new IllegalArgumentException("A polygon requires at least 3 vertices as x, y pairs");
+        }
+        mVertices = vertices.clone();
+        float inradius = Float.MAX_VALUE;
+        float circumradius = 0f;
+        int count = mVertices.length / 2;
+        for (int i = 0; i < count; i++) {
+            float ax = mVertices[i * 2], ay = mVertices[i * 2 + 1];
+            int next = (i + 1) % count;
+            float bx = mVertices[next * 2], by = mVertices[next * 2 + 1];
+            circumradius = Math.max(circumradius, (float) Math.sqrt(ax * ax + ay * ay));
+            float length = (float) Math.sqrt((bx - ax) * (bx - ax) + (by - ay) * (by - ay));
+            if (length > 0f) {
+                inradius = Math.min(inradius, Math.abs(ax * by - ay * bx) / length);
+            }
+        }
+        if (inradius <= 0f || inradius == Float.MAX_VALUE) {
+            throw new IllegalArgumentException("The polygon must surround the origin");
+        }
+        mInradius = inradius;
+        mCircumradius = circumradius;
+    }
+
+    /**
+     * Creates a regular polygon
+     * @param sides the number of sides, at least 3
+     * @return the vertices of the polygon, on the unit circle
+     */
+    public static float[] regularPolygon(int sides) {
+        if (sides < 3) {
+            throw new IllegalArgumentException("A polygon requires at least 3 sides");
+        }
+        float[] vertices = new float[sides * 2];
+        for (int i = 0; i < sides; i++) {
+            double angle = 2 * Math.PI * i / sides - Math.PI / 2;
+            vertices[i * 2] = (float) Math.cos(angle);
+            vertices[i * 2 + 1] = (float) Math.sin(angle);
+        }
+        return vertices;
+    }
+
+    /**
+     * Sets the rotation of the polygon when the animation starts, it unwinds to 0 as the polygon grows
+     * @param degrees the rotation in degrees, 0 by default
+     */
+    public void setRotation(float degrees) {
+        mRotation = degrees;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getGeometrySize() {
+        return GEOMETRY_SIZE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onGeometryChanged(int width, int height, float[] outGeometry) {
+        float centerX = width / 2f;
+        float centerY = height / 2f;
+        outGeometry[GEOMETRY_CENTER_X] = centerX;
+        outGeometry[GEOMETRY_CENTER_Y] = centerY;
+        //the polygon covers the layout once its nearest edge reaches the corners.
+        outGeometry[GEOMETRY_SCALE] = (float) Math.sqrt(centerX * centerX + centerY * centerY) / mInradius;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void buildClipPath(Path path, float step, int width, int height, float[] geometry) {
+        float centerX = geometry[GEOMETRY_CENTER_X];
+        float centerY = geometry[GEOMETRY_CENTER_Y];
+        float scale = geometry[GEOMETRY_SCALE] * step;
+        float sin = 0f;
+        float cos = 1f;
+        if (mRotation != 0f) {
+            double angle = Math.toRadians(mRotation * (1f - step));
+            sin = (float) Math.sin(angle);
+            cos = (float) Math.cos(angle);
+        }
+        float[] vertices = mVertices;
+        for (int i = 0; i < vertices.length; i += 2) {
+            float x = centerX + (vertices[i] * cos - vertices[i + 1] * sin) * scale;
+            float y = centerY + (vertices[i] * sin + vertices[i + 1] * cos) * scale;
+            if (i == 0) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
+        }
+        path.close();
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * Uses the circle surrounding the polygon, which holds for any rotation.
+     */
+    @Override
+    protected void computeClipBounds(float step, int width, int height, float[] geometry, RectF outBounds) {
+        float centerX = geometry[GEOMETRY_CENTER_X];
+        float centerY = geometry[GEOMETRY_CENTER_Y];
+        float radius = mCircumradius * geometry[GEOMETRY_SCALE] * step;
+        outBounds.set(centerX - radius, centerY - radius, centerX + radius, centerY + radius);
+    }
+}
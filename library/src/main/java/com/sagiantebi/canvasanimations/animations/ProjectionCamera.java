@@ -0,0 +1,234 @@
+/*
+ * ProjectionCamera.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Matrix;
+
+/**
+ * A plain java replacement for {@link android.graphics.Camera}, computing the same 3x3 perspective matrices without any native calls.<br/>
+ * Follows the projection used by the platform camera - the camera sits at its location (in inches, 72 pixels each) looking down the z axis,
+ * and the rotations are applied to a unit patch at the origin. Translations are not supported, the segmented animations only need rotations.<br/>
+ * Instances are not thread safe and do not allocate after construction.
+ */
+public final class ProjectionCamera {
+
+    /**
+     * The number of pixels in an inch, as used by the platform camera
+     */
+    private final static float PIXELS_PER_INCH = 72f;
+
+    /**
+     * The default camera distance in inches, same as {@link android.graphics.Camera}
+     */
+    private final static float DEFAULT_LOCATION_Z = -8f;
+
+    /**
+     * The camera location, in pixels
+     */
+    private float mLocationX = 0f;
+    private float mLocationY = 0f;
+    private float mLocationZ = DEFAULT_LOCATION_Z * PIXELS_PER_INCH;
+
+    /**
+     * The accumulated rotation, a row major 3x3 matrix
+     */
+    private final float[] mRotation = new float[9];
+
+    /**
+     * Scratch space for the projected matrix values, in {@link Matrix#setValues(float[])} order
+     */
+    private final float[] mValues = new float[9];
+
+    /**
+     * Creates a camera at the default location with no rotation
+     */
+    public ProjectionCamera() {
+        reset();
+    }
+
+    /**
+     * Sets the camera location, same as {@link android.graphics.Camera#setLocation(float, float, float)}
+     * @param x the x location in inches
+     * @param y the y location in inches
+     * @param z the z location in inches, negative values move the camera away from the screen
+     */
+    public void setLocation(float x, float y, float z) {
+        mLocationX = x * PIXELS_PER_INCH;
+        mLocationY = y * PIXELS_PER_INCH;
+        mLocationZ = z * PIXELS_PER_INCH;
+    }
+
+    /**
+     * Clears all rotations, the location is kept.
+     */
+    public void reset() {
+        float[] r = mRotation;
+        r[0] = 1f; r[1] = 0f; r[2] = 0f;
+        r[3] = 0f; r[4] = 1f; r[5] = 0f;
+        r[6] = 0f; r[7] = 0f; r[8] = 1f;
+    }
+
+    /**
+     * Rotates around the x axis, same as {@link android.graphics.Camera#rotateX(float)}
+     * @param degrees the rotation in degrees
+     */
+    public void rotateX(float degrees) {
+        if (degrees != 0f) {
+            double rad = Math.toRadians(degrees);
+            preRotate(1f, 0f, 0f, (float) Math.sin(rad), (float) Math.cos(rad));
+        }
+    }
+
+    /**
+     * Rotates around the y axis, same as {@link android.graphics.Camera#rotateY(float)}
+     * @param degrees the rotation in degrees
+     */
+    public void rotateY(float degrees) {
+        if (degrees != 0f) {
+            double rad = Math.toRadians(degrees);
+            //the platform camera rotates around the negative y axis, since its y axis points up.
+            preRotate(0f, -1f, 0f, (float) Math.sin(rad), (float) Math.cos(rad));
+        }
+    }
+
+    /**
+     * Rotates around the z axis, same as {@link android.graphics.Camera#rotateZ(float)}
+     * @param degrees the rotation in degrees
+     */
+    public void rotateZ(float degrees) {
+        if (degrees != 0f) {
+            double rad = Math.toRadians(degrees);
+            preRotate(0f, 0f, 1f, (float) Math.sin(rad), (float) Math.cos(rad));
+        }
+    }
+
+    /**
+     * Computes the projected matrix for the current rotation, same as {@link android.graphics.Camera#getMatrix(Matrix)}
+     * @param outValues receives the 9 matrix values, in {@link Matrix#setValues(float[])} order
+     */
+    public void getValues(float[] outValues) {
+        float[] r = mRotation;
+        //the unit patch - u is the rotated x axis, v the rotated negative y axis.
+        float ux = r[0], uy = r[3], uz = r[6];
+        float vx = -r[1], vy = -r[4], vz = -r[7];
+        //the camera looks down the z axis with its y axis pointing up, the observer sits at the camera's depth.
+        //this reduces the platform's patch to matrix projection to a divide by the camera's depth.
+        float depth = -mLocationZ;
+        outValues[Matrix.MSCALE_X] = ux;
+        outValues[Matrix.MSKEW_X] = vx;
+        outValues[Matrix.MTRANS_X] = -mLocationX;
+        outValues[Matrix.MSKEW_Y] = -uy;
+        outValues[Matrix.MSCALE_Y] = -vy;
+        outValues[Matrix.MTRANS_Y] = mLocationY;
+        outValues[Matrix.MPERSP_0] = uz / depth;
+        outValues[Matrix.MPERSP_1] = vz / depth;
+        outValues[Matrix.MPERSP_2] = 1f;
+    }
+
+    /**
+     * Computes the projected matrix for the current rotation, applied around a pivot point.<br/>
+     * Equivalent to {@link android.graphics.Camera#getMatrix(Matrix)} followed by {@code preTranslate(-pivotX, -pivotY)} and {@code postTranslate(pivotX, pivotY)}.
+     * @param outValues receives the 9 matrix values, in {@link Matrix#setValues(float[])} order
+     * @param pivotX the x coordinate of the pivot
+     * @param pivotY the y coordinate of the pivot
+     */
+    public void getValues(float[] outValues, float pivotX, float pivotY) {
+        getValues(outValues);
+        float[] v = outValues;
+        float transX = v[Matrix.MTRANS_X] - v[Matrix.MSCALE_X] * pivotX - v[Matrix.MSKEW_X] * pivotY;
+        float transY = v[Matrix.MTRANS_Y] - v[Matrix.MSKEW_Y] * pivotX - v[Matrix.MSCALE_Y] * pivotY;
+        float persp2 = v[Matrix.MPERSP_2] - v[Matrix.MPERSP_0] * pivotX - v[Matrix.MPERSP_1] * pivotY;
+        v[Matrix.MSCALE_X] += pivotX * v[Matrix.MPERSP_0];
+        v[Matrix.MSKEW_X] += pivotX * v[Matrix.MPERSP_1];
+        v[Matrix.MTRANS_X] = transX + pivotX * persp2;
+        v[Matrix.MSKEW_Y] += pivotY * v[Matrix.MPERSP_0];
+        v[Matrix.MSCALE_Y] += pivotY * v[Matrix.MPERSP_1];
+        v[Matrix.MTRANS_Y] = transY + pivotY * persp2;
+        v[Matrix.MPERSP_2] = persp2;
+    }
+
+    /**
+     * Sets the supplied matrix to the projection of the current rotation, same as {@link android.graphics.Camera#getMatrix(Matrix)}
+     * @param matrix the matrix to set
+     */
+    public void getMatrix(Matrix matrix) {
+        getValues(mValues);
+        matrix.setValues(mValues);
+    }
+
+    /**
+     * Sets the supplied matrix to the projection of the current rotation, applied around a pivot point
+     * @param matrix the matrix to set
+     * @param pivotX the x coordinate of the pivot
+     * @param pivotY the y coordinate of the pivot
+     * @see #getValues(float[], float, float)
+     */
+    public void getMatrix(Matrix matrix, float pivotX, float pivotY) {
+        getValues(mValues, pivotX, pivotY);
+        matrix.setValues(mValues);
+    }
+
+    /**
+     * Maps the y coordinate of a point using projected matrix values, useful for measuring how much of a segment remains visible without a {@link Matrix}.
+     * @param values the 9 matrix values, in {@link Matrix#setValues(float[])} order
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return the mapped y coordinate
+     */
+    public static float mapY(float[] values, float x, float y) {
+        float w = values[Matrix.MPERSP_0] * x + values[Matrix.MPERSP_1] * y + values[Matrix.MPERSP_2];
+        float mapped = values[Matrix.MSKEW_Y] * x + values[Matrix.MSCALE_Y] * y + values[Matrix.MTRANS_Y];
+        return w != 0f ? mapped / w : mapped;
+    }
+
+    /**
+     * Maps the x coordinate of a point using projected matrix values, the horizontal counterpart of {@link #mapY(float[], float, float)}.
+     * @param values the 9 matrix values, in {@link Matrix#setValues(float[])} order
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return the mapped x coordinate
+     */
+    public static float mapX(float[] values, float x, float y) {
+        float w = values[Matrix.MPERSP_0] * x + values[Matrix.MPERSP_1] * y + values[Matrix.MPERSP_2];
+        float mapped = values[Matrix.MSCALE_X] * x + values[Matrix.MSKEW_X] * y + values[Matrix.MTRANS_X];
+        return w != 0f ? mapped / w : mapped;
+    }
+
+    /**
+     * Pre-concatenates a rotation around a unit axis to the current rotation
+     * @param x the x component of the axis
+     * @param y the y component of the axis
+     * @param z the z component of the axis
+     * @param sin the sine of the angle
+     * @param cos the cosine of the angle
+     */
+    private void preRotate(float x, float y, float z, float sin, float cos) {
+        float t = 1f - cos;
+        float b0 = t * x * x + cos, b1 = t * x * y - sin * z, b2 = t * x * z + sin * y;
+        float b3 = t * x * y + sin * z, b4 = t * y * y + cos, b5 = t * y * z - sin * x;
+        float b6 = t * x * z - sin * y, b7 = t * y * z + sin * x, b8 = t * z * z + cos;
+        float[] r = mRotation;
+        for (int row = 0; row < 9; row += 3) {
+            float a0 = r[row], a1 = r[row + 1], a2 = r[row + 2];
+            r[row] = a0 * b0 + a1 * b3 + a2 * b6;
+            r[row + 1] = a0 * b1 + a1 * b4 + a2 * b7;
+            r[row + 2] = a0 * b2 + a1 * b5 + a2 * b8;
+        }
+    }
+}
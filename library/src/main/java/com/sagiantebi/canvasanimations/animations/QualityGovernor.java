@@ -0,0 +1,196 @@
+/*
+ * QualityGovernor.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+/**
+ * An adaptive quality governor for a {@link CanvasAnimation}, see {@link CanvasAnimation#setQualityGovernor(QualityGovernor)}.<br/>
+ * The governor measures every animated frame's draw time. When enough consecutive frames exceed the budget the quality level is lowered,
+ * first by drawing from a snapshot (only if allowed by {@link #setSnapshotAllowed(boolean)}) and then by halving the number of segments on every further level.
+ * When enough consecutive frames finish within the headroom the level is raised again. The separate thresholds and frame counts provide the hysteresis.<br/>
+ * A level change rebuilds the segment geometry, and the transform table if enabled, on the next frame of every layout, so that frame costs more.
+ * A governor attached to an animation shared by several layouts measures all of them together.
+ */
+public final class QualityGovernor {
+
+    /**
+     * The full quality level, nothing is degraded
+     */
+    public final static int LEVEL_FULL = 0;
+
+    /**
+     * A listener for quality level changes, useful for telemetry
+     */
+    public interface OnQualityChangeListener {
+        /**
+         * Invoked when the governor changes the quality level
+         * @param governor the governor
+         * @param oldLevel the previous level
+         * @param newLevel the new level, {@link #LEVEL_FULL} being the highest quality
+         * @param drawTimeNanos the draw time of the frame which triggered the change, in nanoseconds
+         */
+        void onQualityChanged(QualityGovernor governor, int oldLevel, int newLevel, long drawTimeNanos);
+    }
+
+    /**
+     * The thresholds, see the matching setters
+     */
+    private long mBudgetNanos = CanvasAnimation.DEFAULT_FRAME_BUDGET_NANOS;
+    private float mHeadroom = 0.5f;
+    private int mDegradeFrames = 3;
+    private int mRestoreFrames = 30;
+    private int mMaxLevel = 3;
+    private boolean mSnapshotAllowed = false;
+    private OnQualityChangeListener mListener;
+
+    /**
+     * The current level, and the consecutive frames over the budget or within the headroom
+     */
+    private int mLevel = LEVEL_FULL;
+    private int mFramesOverBudget = 0;
+    private int mFramesWithinHeadroom = 0;
+
+    /**
+     * Sets the draw time budget of a frame
+     * @param budgetNanos the budget in nanoseconds, {@link CanvasAnimation#DEFAULT_FRAME_BUDGET_NANOS} by default
+     */
+    public void setBudgetNanos(long budgetNanos) {
+        mBudgetNanos = budgetNanos;
+    }
+
+    /**
+     * Sets the headroom required for raising the quality
+     * @param headroom the fraction of the budget a frame must finish within to count towards raising the quality, 0.5 by default
+     */
+    public void setHeadroom(float headroom) {
+        mHeadroom = headroom;
+    }
+
+    /**
+     * Sets the number of consecutive frames over the budget which lower the quality
+     * @param frames the number of frames, 3 by default
+     */
+    public void setDegradeFrames(int frames) {
+        mDegradeFrames = frames;
+    }
+
+    /**
+     * Sets the number of consecutive frames within the headroom which raise the quality
+     * @param frames the number of frames, 30 by default
+     */
+    public void setRestoreFrames(int frames) {
+        mRestoreFrames = frames;
+    }
+
+    /**
+     * Sets the lowest quality level the governor may use
+     * @param maxLevel the maximal level, 3 by default
+     */
+    public void setMaxLevel(int maxLevel) {
+        mMaxLevel = maxLevel;
+        if (mLevel > maxLevel) {
+            mLevel = maxLevel;
+        }
+    }
+
+    /**
+     * Sets whether the governor may draw from a snapshot. The snapshot is rendered in software on a frame which is already over budget,
+     * and children are only kept current by layouts reporting their invalidations, see {@link CanvasAnimation#setSnapshotEnabled(boolean)}.
+     * @param allowed true to use a snapshot as the first degraded level, false to only reduce segments (the default)
+     */
+    public void setSnapshotAllowed(boolean allowed) {
+        mSnapshotAllowed = allowed;
+    }
+
+    /**
+     * Sets a listener for quality level changes
+     * @param listener the listener, may be null
+     */
+    public void setOnQualityChangeListener(OnQualityChangeListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Getter for the current quality level
+     * @return the current level, {@link #LEVEL_FULL} being the highest quality
+     */
+    public int getLevel() {
+        return mLevel;
+    }
+
+    /**
+     * Restores the full quality and clears the frame counters
+     */
+    public void reset() {
+        mLevel = LEVEL_FULL;
+        mFramesOverBudget = 0;
+        mFramesWithinHeadroom = 0;
+    }
+
+    /**
+     * Returns if the current level draws from a snapshot
+     * @return true if the animation should draw from a snapshot
+     */
+    boolean usesSnapshot() {
+        return mSnapshotAllowed && mLevel > LEVEL_FULL;
+    }
+
+    /**
+     * Applies the current level to a segment count
+     * @param segments the number of segments at full quality
+     * @return the number of segments to draw, at least 1
+     */
+    int getEffectiveSegmentCount(int segments) {
+        int reductions = mSnapshotAllowed ? mLevel - 1 : mLevel;
+        if (reductions <= 0) {
+            return segments;
+        }
+        return Math.max(1, segments >> reductions);
+    }
+
+    /**
+     * Records the draw time of an animated frame, changing the level when a threshold is crossed
+     * @param drawTimeNanos the draw time, in nanoseconds
+     */
+    void onFrameDrawn(long drawTimeNanos) {
+        if (drawTimeNanos > mBudgetNanos) {
+            mFramesWithinHeadroom = 0;
+            if (++mFramesOverBudget >= mDegradeFrames && mLevel < mMaxLevel) {
+                changeLevel(mLevel + 1, drawTimeNanos);
+            }
+        } else if (drawTimeNanos < mBudgetNanos * mHeadroom) {
+            mFramesOverBudget = 0;
+            if (++mFramesWithinHeadroom >= mRestoreFrames && mLevel > LEVEL_FULL) {
+                changeLevel(mLevel - 1, drawTimeNanos);
+            }
+        } else {
+            mFramesOverBudget = 0;
+            mFramesWithinHeadroom = 0;
+        }
+    }
+
+    private void changeLevel(int level, long drawTimeNanos) {
+        int oldLevel = mLevel;
+        mLevel = level;
+        mFramesOverBudget = 0;
+        mFramesWithinHeadroom = 0;
+        if (mListener != null) {
+            mListener.onQualityChanged(this, oldLevel, level, drawTimeNanos);
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package com.sagiantebi.canvasanimations.animations;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 
 /**
  * A simple clipping animation, reveals the view from top to bottom, moving the anchor points as it progresses
@@ -39,11 +40,30 @@ public class RevealAnimation extends CanvasAnimation {
      */
     @Override
     protected void dispatchDraw(Canvas canvas, float step) {
-        float w = getLayout().getContentView().getWidth();
-        float h = getLayout().getContentView().getHeight();
+        float w = getLayoutWidth();
+        float h = getLayoutHeight();
         float bottom = h * step;
-        canvas.clipRect(0, (bottom/2f)-((bottom/2f)*step), w, (bottom/2f)+(bottom/2f)*step);
-        getLayout().commitDraw(canvas);
+        float top = (bottom/2f)-((bottom/2f)*step);
+        bottom = (bottom/2f)+(bottom/2f)*step;
+        canvas.clipRect(0, top, w, bottom);
+        drawContent(canvas, 0, top, w, bottom);
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * The region spans both the old and the new clip.
+     */
+    @Override
+    public void computeDirtyRegion(float fromStep, float toStep, int width, int height, Rect outRegion) {
+        if (Math.round(fromStep * height) == Math.round(toStep * height)) {
+            outRegion.setEmpty();
+            return;
+        }
+        float from = height * fromStep;
+        float to = height * toStep;
+        float top = Math.min((from/2f)-((from/2f)*fromStep), (to/2f)-((to/2f)*toStep));
+        float bottom = Math.max((from/2f)+(from/2f)*fromStep, (to/2f)+(to/2f)*toStep);
+        outRegion.set(0, (int) Math.floor(top), width, (int) Math.ceil(bottom));
     }
 
 }
@@ -19,6 +19,7 @@
 package com.sagiantebi.canvasanimations.animations;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 
 /**
  * A simple clipping animation for revealing or hiding the view from the bottom
@@ -39,11 +40,26 @@ public class RevealFromBottomAnimation extends CanvasAnimation {
      */
     @Override
     protected void dispatchDraw(Canvas canvas, float step) {
-        float w = getLayout().getContentView().getWidth();
-        float h = getLayout().getContentView().getHeight();
+        float w = getLayoutWidth();
+        float h = getLayoutHeight();
         int top = (int) (h-(h*step));
         canvas.clipRect(0, top, w, h);
-        getLayout().commitDraw(canvas);
+        drawContent(canvas, 0, top, w, h);
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * Only the strip between the old and the new top edge changes.
+     */
+    @Override
+    public void computeDirtyRegion(float fromStep, float toStep, int width, int height, Rect outRegion) {
+        int from = (int) (height-(height*fromStep));
+        int to = (int) (height-(height*toStep));
+        if (from == to) {
+            outRegion.setEmpty();
+        } else {
+            outRegion.set(0, Math.min(from, to), width, Math.max(from, to));
+        }
     }
 
 }
@@ -19,6 +19,7 @@
 package com.sagiantebi.canvasanimations.animations;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 
 /**
  * A simple clipping animation for revealing or hiding the view from the center
@@ -39,11 +40,28 @@ public class RevealFromCenterAnimation extends CanvasAnimation {
      */
     @Override
     protected void dispatchDraw(Canvas canvas, float step) {
-        float w = getLayout().getContentView().getWidth();
-        float bottom = getLayout().getContentView().getHeight();
+        float w = getLayoutWidth();
+        float bottom = getLayoutHeight();
         float midpoint = bottom / 2f;
-        canvas.clipRect(0, midpoint -(midpoint * step), w, midpoint + midpoint * step);
-        getLayout().commitDraw(canvas);
+        float top = midpoint -(midpoint * step);
+        bottom = midpoint + midpoint * step;
+        canvas.clipRect(0, top, w, bottom);
+        drawContent(canvas, 0, top, w, bottom);
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * Both edges move around the midpoint, the region spans the larger of the two clips.
+     */
+    @Override
+    public void computeDirtyRegion(float fromStep, float toStep, int width, int height, Rect outRegion) {
+        if (Math.round(fromStep * height) == Math.round(toStep * height)) {
+            outRegion.setEmpty();
+            return;
+        }
+        float midpoint = height / 2f;
+        float extent = midpoint * Math.max(fromStep, toStep);
+        outRegion.set(0, (int) Math.floor(midpoint - extent), width, (int) Math.ceil(midpoint + extent));
     }
 
 }
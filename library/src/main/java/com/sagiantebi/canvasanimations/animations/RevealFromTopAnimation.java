@@ -19,6 +19,7 @@
 package com.sagiantebi.canvasanimations.animations;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 
 /**
  * A simple clipping animation for revealing or hiding the view from the top
@@ -39,12 +40,27 @@ public class RevealFromTopAnimation extends CanvasAnimation {
      */
     @Override
     protected void dispatchDraw(Canvas canvas, float step) {
-        float w = getLayout().getContentView().getWidth();
-        float h = getLayout().getContentView().getHeight();
+        float w = getLayoutWidth();
+        float h = getLayoutHeight();
         int top = 0;
         float bottom = h * step;
         canvas.clipRect(0, top, w, bottom);
-        getLayout().commitDraw(canvas);
+        drawContent(canvas, 0, top, w, bottom);
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * Only the strip between the old and the new bottom edge changes.
+     */
+    @Override
+    public void computeDirtyRegion(float fromStep, float toStep, int width, int height, Rect outRegion) {
+        float from = height * fromStep;
+        float to = height * toStep;
+        if (Math.round(from) == Math.round(to)) {
+            outRegion.setEmpty();
+        } else {
+            outRegion.set(0, (int) Math.floor(Math.min(from, to)), width, (int) Math.ceil(Math.max(from, to)));
+        }
     }
 
 }
@@ -0,0 +1,89 @@
+/*
+ * SegmentGeometry.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+/**
+ * The size dependent geometry of a {@link SegmentedAnimation} for a single layout, held by the layout's {@link CanvasAnimationState}.<br/>
+ * Keeping it per layout lets one animation instance serve layouts of different sizes without rebuilding the geometry on every frame.
+ */
+final class SegmentGeometry {
+
+    /**
+     * The animation and the configuration version the geometry was computed for
+     */
+    SegmentedAnimation mOwner;
+    int mVersion;
+
+    /**
+     * The parameters {@link #mEdges} were computed for
+     */
+    int mSegments = 0;
+    int mWidth = 0;
+    int mHeight = 0;
+
+    /**
+     * The segment edges along the segmented axis, one more than the number of segments
+     */
+    float[] mEdges;
+
+    /**
+     * The precomputed segment matrices for the owner's full segment count, created when the owner enables its transform table
+     */
+    SegmentTransformTable mTransformTable;
+
+    /**
+     * Returns if the geometry was computed for the supplied parameters
+     * @param owner the animation drawing
+     * @param version the configuration version of the animation
+     * @param segments the number of segments
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @return true if the geometry can be used as is
+     */
+    boolean isValid(SegmentedAnimation owner, int version, int segments, int width, int height) {
+        return mOwner == owner && mVersion == version && mSegments == segments && mWidth == width && mHeight == height;
+    }
+
+    /**
+     * Computes the segment edges, reusing the current storage when possible.
+     * The transform table is cleared when the owner or its configuration changed, it is kept across segment counts.
+     * @param owner the animation drawing
+     * @param version the configuration version of the animation
+     * @param segments the number of segments
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @param length the length of the segmented axis
+     */
+    void set(SegmentedAnimation owner, int version, int segments, int width, int height, float length) {
+        if (mEdges == null || mEdges.length != segments + 1) {
+            mEdges = new float[segments + 1];
+        }
+        for (int i = 0; i <= segments; i++) {
+            mEdges[i] = i * (length / segments);
+        }
+        if (mTransformTable != null && (mOwner != owner || mVersion != version)) {
+            mTransformTable.clear();
+        }
+        mOwner = owner;
+        mVersion = version;
+        mSegments = segments;
+        mWidth = width;
+        mHeight = height;
+    }
+}
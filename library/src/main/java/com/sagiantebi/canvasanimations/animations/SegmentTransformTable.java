@@ -0,0 +1,154 @@
+/*
+ * SegmentTransformTable.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+/**
+ * A lookup table of precomputed per-segment matrices, keyed by the quantized step of each segment.<br/>
+ * For a given size and segment count the segment matrices depend only on the step, so they can be computed once and interpolated while drawing.
+ */
+final class SegmentTransformTable {
+
+    /**
+     * The default number of table intervals per segment
+     */
+    final static int DEFAULT_RESOLUTION = 256;
+
+    /**
+     * The number of values in a matrix
+     */
+    private final static int MATRIX_SIZE = 9;
+
+    /**
+     * Computes the matrix values for a single segment, implemented by the animation owning the table
+     */
+    interface TransformSource {
+        /**
+         * Computes the transform of a segment
+         * @param segment the index of the segment
+         * @param segments the number of segments
+         * @param segmentStep the step of the segment, between 0 and 1
+         * @param width the width of the layout
+         * @param height the height of the layout
+         * @param outValues receives the 9 matrix values, in {@link android.graphics.Matrix#setValues(float[])} order
+         */
+        void computeSegmentTransform(int segment, int segments, float segmentStep, int width, int height, float[] outValues);
+    }
+
+    /**
+     * The number of intervals per segment, each segment stores one more entry than this
+     */
+    private final int mResolution;
+
+    /**
+     * The table values - segments, then entries, then matrix values
+     */
+    private float[] mTable;
+
+    /**
+     * The parameters the table was built with
+     */
+    private int mSegments = 0;
+    private int mWidth = 0;
+    private int mHeight = 0;
+
+    /**
+     * Scratch space for a single entry while building
+     */
+    private final float[] mValues = new float[MATRIX_SIZE];
+
+    /**
+     * Creates an empty table with the default resolution
+     */
+    SegmentTransformTable() {
+        this(DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * Creates an empty table
+     * @param resolution the number of intervals per segment
+     */
+    SegmentTransformTable(int resolution) {
+        mResolution = resolution;
+    }
+
+    /**
+     * Returns if the table was built for the supplied parameters
+     * @param segments the number of segments
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @return true if the table can be used as is
+     */
+    boolean isValid(int segments, int width, int height) {
+        return mTable != null && mSegments == segments && mWidth == width && mHeight == height;
+    }
+
+    /**
+     * Builds the table, reusing the current storage when possible
+     * @param source the source computing each entry
+     * @param segments the number of segments
+     * @param width the width of the layout
+     * @param height the height of the layout
+     */
+    void build(TransformSource source, int segments, int width, int height) {
+        int entries = mResolution + 1;
+        int size = segments * entries * MATRIX_SIZE;
+        if (mTable == null || mTable.length != size) {
+            mTable = new float[size];
+        }
+        float[] values = mValues;
+        for (int segment = 0; segment < segments; segment++) {
+            for (int entry = 0; entry < entries; entry++) {
+                source.computeSegmentTransform(segment, segments, entry / (float) mResolution, width, height, values);
+                System.arraycopy(values, 0, mTable, (segment * entries + entry) * MATRIX_SIZE, MATRIX_SIZE);
+            }
+        }
+        mSegments = segments;
+        mWidth = width;
+        mHeight = height;
+    }
+
+    /**
+     * Drops the table storage
+     */
+    void clear() {
+        mTable = null;
+        mSegments = 0;
+        mWidth = 0;
+        mHeight = 0;
+    }
+
+    /**
+     * Looks up the transform of a segment, interpolating between the nearest entries
+     * @param segment the index of the segment
+     * @param segmentStep the step of the segment, between 0 and 1
+     * @param outValues receives the 9 matrix values, in {@link android.graphics.Matrix#setValues(float[])} order
+     */
+    void lookup(int segment, float segmentStep, float[] outValues) {
+        float position = Math.max(0f, Math.min(1f, segmentStep)) * mResolution;
+        int entry = Math.min((int) position, mResolution - 1);
+        float fraction = position - entry;
+        int from = (segment * (mResolution + 1) + entry) * MATRIX_SIZE;
+        int to = from + MATRIX_SIZE;
+        float[] table = mTable;
+        for (int i = 0; i < MATRIX_SIZE; i++) {
+            float value = table[from + i];
+            outValues[i] = value + (table[to + i] - value) * fraction;
+        }
+    }
+}
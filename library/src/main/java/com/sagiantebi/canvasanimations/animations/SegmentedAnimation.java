@@ -0,0 +1,313 @@
+/*
+ * SegmentedAnimation.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+
+/**
+ * A base for animations splitting the layout into equal segments, each rotated in 3D around its far edge.<br/>
+ * The segment edges are cached per layout in its {@link CanvasAnimationState}, the timing of every segment is driven by a {@link StaggerFunction}
+ * and the segments can be stacked vertically or laid out horizontally.
+ */
+public abstract class SegmentedAnimation extends CanvasAnimation {
+
+    /**
+     * The segments are stacked top to bottom, each rotating around the x axis
+     */
+    public final static int ORIENTATION_VERTICAL = 0;
+    /**
+     * The segments are laid out left to right, each rotating around the y axis
+     */
+    public final static int ORIENTATION_HORIZONTAL = 1;
+
+    /**
+     * Maps the animation step to the step of a single segment.<br/>
+     * The ends of a run are drawn without the function - nothing at step 0 and the plain content at step 1, so a function must return 1 for
+     * every segment at step 1 for the last frame to match the frames before it.
+     */
+    public interface StaggerFunction {
+        /**
+         * Computes the step of a segment, invoked for every segment on every frame so implementations should not allocate
+         * @param step the animation step, between 0 and 1
+         * @param segment the index of the segment
+         * @param segments the number of segments
+         * @return the step of the segment, 0 being edge on and 1 being flat. Must be 1 when step is 1.
+         */
+        float getSegmentStep(float step, int segment, int segments);
+    }
+
+    /**
+     * Every segment follows the animation step
+     */
+    public final static StaggerFunction STAGGER_NONE = new StaggerFunction() {
+        @Override
+        public float getSegmentStep(float step, int segment, int segments) {
+            return step;
+        }
+    };
+
+    /**
+     * The segments move one after the other, each taking an equal part of the animation
+     */
+    public final static StaggerFunction STAGGER_SEQUENTIAL = new StaggerFunction() {
+        @Override
+        public float getSegmentStep(float step, int segment, int segments) {
+            return Math.max(0f, Math.min(1f, (step * segments) - segment));
+        }
+    };
+
+    /**
+     * The number of segments at full quality
+     */
+    private final int mNumberOfSegments;
+    private int mOrientation = ORIENTATION_VERTICAL;
+    private StaggerFunction mStaggerFunction = STAGGER_SEQUENTIAL;
+
+    private final ProjectionCamera mCamera = new ProjectionCamera();
+    private final Matrix mMatrix = new Matrix();
+    /**
+     * Scratch space for the values of a segment matrix
+     */
+    private final float[] mMatrixValues = new float[9];
+
+    /**
+     * Incremented whenever the configuration changes, invalidating the {@link SegmentGeometry} of every layout
+     */
+    private int mGeometryVersion = 0;
+
+    /**
+     * When true, the segment matrices are read from the layout's {@link SegmentTransformTable} instead of being computed every frame
+     */
+    private boolean mTransformTableEnabled = false;
+    /**
+     * Computes the table entries using {@link #computeSegmentValues(ProjectionCamera, float, float, float, int, int, float[])}
+     */
+    private final SegmentTransformTable.TransformSource mTransformSource = new SegmentTransformTable.TransformSource() {
+        @Override
+        public void computeSegmentTransform(int segment, int segments, float segmentStep, int width, int height, float[] outValues) {
+            float length = mOrientation == ORIENTATION_VERTICAL ? height : width;
+            float start = segment * (length / segments);
+            float end = (segment + 1) * (length / segments);
+            computeSegmentValues(mCamera, segmentStep, start, end, width, height, outValues);
+        }
+    };
+
+    /**
+     * Creates this animation
+     * @param numberOfSegments the number of segments to split the layout into
+     */
+    protected SegmentedAnimation(int numberOfSegments) {
+        super();
+        this.mNumberOfSegments = numberOfSegments;
+    }
+
+    /**
+     * Getter for the number of segments
+     * @return the number of segments at full quality
+     */
+    public int getNumberOfSegments() {
+        return mNumberOfSegments;
+    }
+
+    /**
+     * Sets the direction the layout is segmented in
+     * @param orientation {@link #ORIENTATION_VERTICAL} (the default) or {@link #ORIENTATION_HORIZONTAL}
+     */
+    public void setOrientation(int orientation) {
+        if (orientation != ORIENTATION_VERTICAL && orientation != ORIENTATION_HORIZONTAL) {
+            throw new IllegalArgumentException("Unknown orientation " + orientation);
+        }
+        if (mOrientation != orientation) {
+            mOrientation = orientation;
+            mGeometryVersion++;
+        }
+    }
+
+    /**
+     * Getter for the orientation
+     * @return {@link #ORIENTATION_VERTICAL} or {@link #ORIENTATION_HORIZONTAL}
+     */
+    public int getOrientation() {
+        return mOrientation;
+    }
+
+    /**
+     * Sets the function timing the segments
+     * @param staggerFunction the function, {@link #STAGGER_SEQUENTIAL} by default
+     */
+    public void setStaggerFunction(StaggerFunction staggerFunction) {
+        if (staggerFunction == null) {
+            throw new IllegalArgumentException("staggerFunction cannot be null");
+        }
+        mStaggerFunction = staggerFunction;
+    }
+
+    /**
+     * Getter for the camera projecting the segments, subclasses may move it in their constructor
+     * @return the camera
+     */
+    protected ProjectionCamera getCamera() {
+        return mCamera;
+    }
+
+    /**
+     * Enables or disables the precomputed transform table.<br/>
+     * When enabled, the segment matrices are computed once per layout size and interpolated while drawing, trading memory for per-frame math.
+     * Every layout keeps its own table, about 9KB per segment, built for the full segment count when the animation is loaded, an animator is created
+     * or the layout is prepared - never while drawing. Frames drawn with fewer segments by the quality governor, or after the layout was resized,
+     * compute their matrices until the table is built again.
+     * @param enabled true to use a transform table, false to compute the matrices every frame (the default)
+     */
+    public void setTransformTableEnabled(boolean enabled) {
+        if (mTransformTableEnabled != enabled) {
+            mTransformTableEnabled = enabled;
+            mGeometryVersion++;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onPrecompute(int width, int height) {
+        SegmentGeometry geometry = obtainGeometry(width, height);
+        if (mTransformTableEnabled) {
+            if (geometry.mTransformTable == null) {
+                geometry.mTransformTable = new SegmentTransformTable();
+            }
+            if (!geometry.mTransformTable.isValid(mNumberOfSegments, width, height)) {
+                geometry.mTransformTable.build(mTransformSource, mNumberOfSegments, width, height);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * Computes a single segment, warming the camera and the native matrix.
+     */
+    @Override
+    protected void onPrepare(int width, int height) {
+        SegmentGeometry geometry = obtainGeometry(width, height);
+        computeSegmentValues(mCamera, 0.5f, geometry.mEdges[0], geometry.mEdges[1], width, height, mMatrixValues);
+        mMatrix.setValues(mMatrixValues);
+    }
+
+    /**
+     * Returns the geometry of the current layout, computing it if the size, the segment count or the configuration changed
+     * @param width the width of the layout
+     * @param height the height of the layout
+     * @return the geometry held by the layout's state
+     */
+    private SegmentGeometry obtainGeometry(int width, int height) {
+        CanvasAnimationState state = getLayout().getAnimationState();
+        SegmentGeometry geometry = state.mSegmentGeometry;
+        if (geometry == null) {
+            geometry = new SegmentGeometry();
+            state.mSegmentGeometry = geometry;
+        }
+        int segments = getEffectiveSegmentCount(mNumberOfSegments);
+        if (!geometry.isValid(this, mGeometryVersion, segments, width, height)) {
+            geometry.set(this, mGeometryVersion, segments, width, height, mOrientation == ORIENTATION_VERTICAL ? height : width);
+        }
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param canvas The canvas of the layout
+     * @param step The current animation step
+     */
+    @Override
+    protected void dispatchDraw(Canvas canvas, float step) {
+        if (step <= 0f) {
+            //every segment is edge on, nothing is visible.
+            return;
+        }
+        if (step >= 1f) {
+            //every segment is flat, the result is the plain content.
+            drawContent(canvas);
+            return;
+        }
+        int w = getLayoutWidth();
+        int h = getLayoutHeight();
+        SegmentGeometry geometry = obtainGeometry(w, h);
+        int segments = geometry.mSegments;
+        float[] edges = geometry.mEdges;
+        SegmentTransformTable table = mTransformTableEnabled ? geometry.mTransformTable : null;
+        if (table != null && !table.isValid(segments, w, h)) {
+            //degraded by the governor or resized since the table was built, rebuilding it here would stall the frame.
+            table = null;
+        }
+        boolean vertical = mOrientation == ORIENTATION_VERTICAL;
+        for (int i = 0; i < segments; i++) {
+            float segmentStep = mStaggerFunction.getSegmentStep(step, i, segments);
+            if (segmentStep <= 0f) {
+                continue;
+            }
+            float start = edges[i];
+            float end = edges[i + 1];
+            if (table != null) {
+                table.lookup(i, segmentStep, mMatrixValues);
+            } else {
+                computeSegmentValues(mCamera, segmentStep, start, end, w, h, mMatrixValues);
+            }
+            float projectedStart = vertical ? ProjectionCamera.mapY(mMatrixValues, w / 2f, start) : ProjectionCamera.mapX(mMatrixValues, start, h / 2f);
+            if (Math.abs(end - projectedStart) < 1f) {
+                //the segment is edge on, less than a pixel would be drawn.
+                continue;
+            }
+            float left = vertical ? 0 : start;
+            float top = vertical ? start : 0;
+            float right = vertical ? w : end;
+            float bottom = vertical ? end : h;
+            beginSegmentTrace();
+            int count = canvas.save();
+            mMatrix.setValues(mMatrixValues);
+            canvas.concat(mMatrix);
+            if (!canvas.quickReject(left, top, right, bottom, Canvas.EdgeType.BW)) {
+                canvas.clipRect(left, top, right, bottom);
+                drawContent(canvas, left, top, right, bottom);
+            }
+            canvas.restoreToCount(count);
+            endSegmentTrace();
+        }
+    }
+
+    /**
+     * Computes the matrix of a single segment. The default rotates the segment around its far edge, from edge on at step 0 to flat at step 1.
+     * @param camera the camera to project with
+     * @param segmentStep the step of the segment, between 0 and 1
+     * @param start the near edge of the segment along the segmented axis
+     * @param end the far edge of the segment along the segmented axis
+     * @param w the width of the layout
+     * @param h the height of the layout
+     * @param outValues receives the matrix values
+     */
+    protected void computeSegmentValues(ProjectionCamera camera, float segmentStep, float start, float end, int w, int h, float[] outValues) {
+        camera.reset();
+        if (mOrientation == ORIENTATION_VERTICAL) {
+            camera.rotateX(-89f * (1f - segmentStep));
+            camera.getValues(outValues, w / 2f, end);
+        } else {
+            camera.rotateY(89f * (1f - segmentStep));
+            camera.getValues(outValues, end, h / 2f);
+        }
+    }
+}
@@ -18,26 +18,45 @@
 
 package com.sagiantebi.canvasanimations.animations;
 
-import android.graphics.Camera;
-import android.graphics.Canvas;
-import android.graphics.Matrix;
-
 /**
  * An animation simulating shades closing or opening
  */
-public class ShadesAnimation extends CanvasAnimation {
+public class ShadesAnimation extends SegmentedAnimation {
 
     /**
      * The default number of shades
      */
     private final static int NUMBER_OF_SHADES = 8;
+
     /**
-     * The number of shades used by this instance
+     * Moves the shades together, with a small increment in every shade to create a smooth top to bottom effect
      */
-    private final int mNumberOfShades;
+    private final static StaggerFunction STAGGER_SHADES = new StaggerFunction() {
+        @Override
+        public float getSegmentStep(float step, int segment, int segments) {
+            float increment = segment < SHADE_INCREMENTS.length ? SHADE_INCREMENTS[segment] : 0f;
+            return Math.min(step + increment, 1f);
+        }
+    };
 
-    private Camera mCamera = new Camera();
-    private Matrix mMatrix = new Matrix();
+    /**
+     * The increment of every shade, starting at 0.01 and shrinking by 0.18 on every shade.
+     * Later increments are below the float precision of any visible step, so they are left out.
+     */
+    private final static float[] SHADE_INCREMENTS = computeShadeIncrements(16);
+
+    /**
+     * Computes the increments of {@link #STAGGER_SHADES}
+     * @param count the number of shades with an increment
+     * @return the increment of every shade
+     */
+    private static float[] computeShadeIncrements(int count) {
+        float[] increments = new float[count];
+        for (int i = 0; i < count; i++) {
+            increments[i] = 0.01f * (float) Math.pow(0.18, i);
+        }
+        return increments;
+    }
 
     /**
      * Creates this animation with the default amount of shades
@@ -51,41 +70,8 @@ public class ShadesAnimation extends CanvasAnimation {
      * @param numberOfShades the number of shades to use
      */
     public ShadesAnimation(int numberOfShades) {
-        super();
-        this.mNumberOfShades = numberOfShades;
-    }
-
-    /**
-     * {@inheritDoc}
-     * @param canvas The canvas of the layout
-     * @param step The current animation step
-     */
-    @Override
-    protected void dispatchDraw(Canvas canvas, float step) {
-        float w = getLayout().getContentView().getWidth();
-        float h = getLayout().getContentView().getHeight();
-        //use a small increment in every shade to create a smooth top to bottom effect
-        float increment = 0.01f;
-        for (int i = 0; i < mNumberOfShades; i++) {
-            int count = canvas.save();
-            mCamera.save();
-            mCamera.setLocation(0, 0, -18 * 2);
-            float innerStep = Math.min(step+increment, 1f);
-            mCamera.rotateX(-89f * (1f-innerStep));
-            mCamera.rotateY(0f);
-            mCamera.rotateZ(-0f);
-            mCamera.getMatrix(mMatrix);
-            float dy = -(i + 1) * (h / mNumberOfShades);
-            mMatrix.preTranslate(-w / 2f, dy);
-            float bottom = (i + 1) * (h / mNumberOfShades);
-            mMatrix.postTranslate(w / 2f, bottom);
-            canvas.concat(mMatrix);
-            float top = i * (h / mNumberOfShades);
-            canvas.clipRect(0, top, w, bottom);
-            getLayout().commitDraw(canvas);
-            canvas.restoreToCount(count);
-            mCamera.restore();
-            increment*=0.18f;
-        }
+        super(numberOfShades);
+        getCamera().setLocation(0, 0, -18 * 2);
+        setStaggerFunction(STAGGER_SHADES);
     }
 }
@@ -0,0 +1,253 @@
+/*
+ * SnapshotTiles.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import com.sagiantebi.canvasanimations.layout.CanvasLayout;
+
+import java.util.Arrays;
+
+/**
+ * A tiled snapshot of a layout, see {@link CanvasAnimation#setSnapshotTileSize(int)}.<br/>
+ * Tiles are rendered on demand when a frame draws a region intersecting them, and tiles which a frame did not draw are returned to the {@link BitmapPool}.
+ * Memory is bounded by the visible part of the animation rather than by the layout size, and no bitmap exceeds the tile size.
+ */
+final class SnapshotTiles {
+
+    /**
+     * The grid parameters
+     */
+    private int mTileSize = 0;
+    private int mWidth = 0;
+    private int mHeight = 0;
+    private int mColumns = 0;
+    private int mRows = 0;
+
+    /**
+     * The resident tiles by row, then column - null when not rendered
+     */
+    private Bitmap[] mTiles;
+    /**
+     * The tiles drawn during the current frame
+     */
+    private boolean[] mUsed;
+    /**
+     * True while the grid holds a configuration, between {@link #configure(int, int, int)} and {@link #release()}
+     */
+    private boolean mActive = false;
+
+    /**
+     * A reusable canvas for rendering tiles
+     */
+    private final Canvas mTileCanvas = new Canvas();
+    /**
+     * Scratch rects for the drawn region and the slices of every tile
+     */
+    private final Rect mRegion = new Rect();
+    private final Rect mSrc = new Rect();
+    private final Rect mDst = new Rect();
+
+    /**
+     * Returns if the tiles are in use
+     * @return true if configured and not released
+     */
+    boolean isActive() {
+        return mActive;
+    }
+
+    /**
+     * Sets up the grid, keeping the resident tiles if nothing changed
+     * @param tileSize the size of every tile
+     * @param width the width of the layout
+     * @param height the height of the layout
+     */
+    void configure(int tileSize, int width, int height) {
+        if (mActive && mTileSize == tileSize && mWidth == width && mHeight == height) {
+            return;
+        }
+        release();
+        mTileSize = tileSize;
+        mWidth = width;
+        mHeight = height;
+        mColumns = (width + tileSize - 1) / tileSize;
+        mRows = (height + tileSize - 1) / tileSize;
+        int count = mColumns * mRows;
+        if (mTiles == null || mTiles.length < count) {
+            mTiles = new Bitmap[count];
+            mUsed = new boolean[count];
+        }
+        mActive = true;
+    }
+
+    /**
+     * Starts a frame, tiles not drawn until {@link #endFrame()} are evicted
+     */
+    void beginFrame() {
+        Arrays.fill(mUsed, false);
+    }
+
+    /**
+     * Ends a frame, returning the tiles it did not draw to the pool
+     */
+    void endFrame() {
+        int count = mColumns * mRows;
+        for (int i = 0; i < count; i++) {
+            if (mTiles[i] != null && !mUsed[i]) {
+                BitmapPool.getInstance().put(mTiles[i]);
+                mTiles[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Returns every tile to the pool
+     */
+    void release() {
+        if (mTiles != null) {
+            BitmapPool pool = BitmapPool.getInstance();
+            for (int i = 0; i < mTiles.length; i++) {
+                if (mTiles[i] != null) {
+                    pool.put(mTiles[i]);
+                    mTiles[i] = null;
+                }
+            }
+        }
+        mActive = false;
+    }
+
+    /**
+     * Renders the invalidated region of the resident tiles again, tiles which are not resident are rendered when next drawn
+     * @param animation the animation drawing, dispatches the children
+     * @param layout the layout being drawn
+     * @param dirty the invalidated region, in layout coordinates
+     */
+    void invalidate(CanvasAnimation animation, CanvasLayout layout, Rect dirty) {
+        mRegion.set(dirty);
+        if (!mRegion.intersect(0, 0, mWidth, mHeight)) {
+            return;
+        }
+        int size = mTileSize;
+        int lastColumn = (mRegion.right - 1) / size;
+        int lastRow = (mRegion.bottom - 1) / size;
+        for (int row = mRegion.top / size; row <= lastRow; row++) {
+            for (int column = mRegion.left / size; column <= lastColumn; column++) {
+                Bitmap tile = mTiles[row * mColumns + column];
+                if (tile != null) {
+                    int x = column * size;
+                    int y = row * size;
+                    mTileCanvas.setBitmap(tile);
+                    int count = mTileCanvas.save();
+                    mTileCanvas.translate(-x, -y);
+                    mTileCanvas.clipRect(mRegion);
+                    mTileCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                    boolean rendered = animation.renderSnapshot(layout, mTileCanvas);
+                    mTileCanvas.restoreToCount(count);
+                    mTileCanvas.setBitmap(null);
+                    if (!rendered) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a region of the snapshot, rendering the missing tiles it intersects. The canvas clip further limits the tiles drawn.
+     * @param animation the animation drawing, dispatches the children into new tiles
+     * @param layout the layout being drawn
+     * @param canvas the canvas of the layout
+     * @param paint the paint for drawing the tiles
+     * @param left the left edge of the region, in layout coordinates
+     * @param top the top edge of the region, in layout coordinates
+     * @param right the right edge of the region, in layout coordinates
+     * @param bottom the bottom edge of the region, in layout coordinates
+     */
+    void draw(CanvasAnimation animation, CanvasLayout layout, Canvas canvas, Paint paint, float left, float top, float right, float bottom) {
+        if (!canvas.getClipBounds(mRegion)) {
+            return;
+        }
+        if (!mRegion.intersect((int) Math.floor(left), (int) Math.floor(top), (int) Math.ceil(right), (int) Math.ceil(bottom))
+                || !mRegion.intersect(0, 0, mWidth, mHeight)) {
+            return;
+        }
+        int size = mTileSize;
+        int lastColumn = (mRegion.right - 1) / size;
+        int lastRow = (mRegion.bottom - 1) / size;
+        for (int row = mRegion.top / size; row <= lastRow; row++) {
+            for (int column = mRegion.left / size; column <= lastColumn; column++) {
+                int index = row * mColumns + column;
+                int x = column * size;
+                int y = row * size;
+                mDst.set(Math.max(mRegion.left, x), Math.max(mRegion.top, y), Math.min(mRegion.right, x + size), Math.min(mRegion.bottom, y + size));
+                Bitmap tile = mTiles[index];
+                if (tile == null) {
+                    tile = renderTile(animation, layout, x, y);
+                    mTiles[index] = tile;
+                }
+                if (tile == null) {
+                    //no memory for the tile or the children cannot be rendered in software, draw them directly.
+                    int count = canvas.save();
+                    canvas.clipRect(mDst);
+                    animation.commitDraw(layout, canvas);
+                    canvas.restoreToCount(count);
+                    continue;
+                }
+                mUsed[index] = true;
+                mSrc.set(mDst.left - x, mDst.top - y, mDst.right - x, mDst.bottom - y);
+                canvas.drawBitmap(tile, mSrc, mDst, paint);
+            }
+        }
+    }
+
+    /**
+     * Renders a single tile
+     * @param animation the animation drawing, dispatches the children
+     * @param layout the layout being drawn
+     * @param x the left edge of the tile, in layout coordinates
+     * @param y the top edge of the tile, in layout coordinates
+     * @return the tile, or null if it could not be allocated or rendered
+     */
+    private Bitmap renderTile(CanvasAnimation animation, CanvasLayout layout, int x, int y) {
+        if (layout.getAnimationState().mSnapshotUnsupported) {
+            return null;
+        }
+        Bitmap tile;
+        try {
+            tile = BitmapPool.getInstance().get(mTileSize, mTileSize, Bitmap.Config.ARGB_8888);
+        } catch (OutOfMemoryError e) {
+            return null;
+        }
+        mTileCanvas.setBitmap(tile);
+        int count = mTileCanvas.save();
+        mTileCanvas.translate(-x, -y);
+        boolean rendered = animation.renderSnapshot(layout, mTileCanvas);
+        mTileCanvas.restoreToCount(count);
+        mTileCanvas.setBitmap(null);
+        if (!rendered) {
+            BitmapPool.getInstance().put(tile);
+            return null;
+        }
+        return tile;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * AnimationStepProperty.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.layout;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.util.FloatProperty;
+import android.util.Property;
+
+/**
+ * The animation step {@link Property} of a {@link CanvasLayout}, letting {@link android.animation.ObjectAnimator} set the step without reflection.
+ * @see CanvasLayout#ANIMATION_STEP_PROPERTY
+ */
+final class AnimationStepProperty extends Property<CanvasLayout, Float> {
+
+    private AnimationStepProperty() {
+        super(Float.class, CanvasLayout.ANIMATION_STEP);
+    }
+
+    /**
+     * Creates the best property for the running platform - a {@link FloatProperty} from API 24, avoiding boxing on every frame.
+     * @return a new property instance
+     */
+    static Property<CanvasLayout, Float> create() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            return new AnimationStepFloatProperty();
+        }
+        return new AnimationStepProperty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Float get(CanvasLayout layout) {
+        return layout.getAnimationStep();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void set(CanvasLayout layout, Float value) {
+        layout.setAnimationStep(value);
+    }
+
+    /**
+     * The unboxed variant, used from API 24
+     */
+    @TargetApi(Build.VERSION_CODES.N)
+    private static final class AnimationStepFloatProperty extends FloatProperty<CanvasLayout> {
+
+        AnimationStepFloatProperty() {
+            super(CanvasLayout.ANIMATION_STEP);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void setValue(CanvasLayout layout, float value) {
+            layout.setAnimationStep(value);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Float get(CanvasLayout layout) {
+            return layout.getAnimationStep();
+        }
+    }
+}
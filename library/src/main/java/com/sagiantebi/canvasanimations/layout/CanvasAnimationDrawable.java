@@ -0,0 +1,359 @@
+/*
+ * CanvasAnimationDrawable.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.layout;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import com.sagiantebi.canvasanimations.animations.CanvasAnimation;
+import com.sagiantebi.canvasanimations.animations.CanvasAnimationState;
+
+/**
+ * A {@link Drawable} wrapper implementing {@link CanvasLayout}, animating the wrapped drawable without any {@link android.view.ViewGroup}.<br/>
+ * Set it as the drawable or background of a view, i.e. {@code imageView.setImageDrawable(new CanvasAnimationDrawable(drawable))}.
+ * Animations draw in the drawable's own coordinates and invalidation never exceeds the drawable bounds.
+ * The wrapper holds the animation state of a single host, so it has no {@link Drawable.ConstantState} and must not be shared between views.
+ */
+public class CanvasAnimationDrawable extends Drawable implements CanvasLayout, Drawable.Callback {
+
+    /**
+     * The wrapped drawable, drawn by {@link #commitDraw(Canvas)}
+     */
+    private final Drawable mDrawable;
+
+    /**
+     * The current animation
+     */
+    private CanvasAnimation mCanvasAnimation = null;
+
+    /**
+     * The per layout state used by the current animation
+     */
+    private final CanvasAnimationState mAnimationState = new CanvasAnimationState(this);
+
+    /**
+     * The current animation step
+     */
+    private float mAnimationStep = 1f;
+
+    /**
+     * True if the last frame was drawn by a running animation, meaning step changes can invalidate only their dirty region
+     */
+    private boolean mAnimationDrawn = false;
+
+    /**
+     * The step which was last invalidated, step changes are measured against it so sub-pixel changes can not accumulate unseen
+     */
+    private float mInvalidatedStep = 1f;
+
+    /**
+     * Reusable rect for the region changed by a step transition, in the coordinates of the host view
+     */
+    private final Rect mDirtyRegion = new Rect();
+
+    /**
+     * True while {@link #invalidateSelf()} should report {@link #mDirtyRegion} as the dirty bounds
+     */
+    private boolean mPartialInvalidation = false;
+
+    /**
+     * Creates this drawable
+     * @param drawable the drawable to animate, should not be null
+     */
+    public CanvasAnimationDrawable(Drawable drawable) {
+        mDrawable = drawable;
+        drawable.setCallback(this);
+    }
+
+    /**
+     * Getter for the wrapped drawable
+     * @return the drawable supplied to the constructor
+     */
+    public Drawable getDrawable() {
+        return mDrawable;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void draw(Canvas canvas) {
+        Rect bounds = getBounds();
+        int count = canvas.save();
+        canvas.translate(bounds.left, bounds.top);
+        if (mCanvasAnimation != null) {
+            mAnimationDrawn = mAnimationState.isRunning();
+            mCanvasAnimation.draw(this, canvas, mAnimationStep);
+        } else {
+            mAnimationDrawn = false;
+            commitDraw(canvas);
+        }
+        canvas.restoreToCount(count);
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * Draws the wrapped drawable, which is kept at the origin so animations can use the drawable's own coordinates.
+     */
+    @Override
+    public void commitDraw(Canvas canvas) {
+        mDrawable.draw(canvas);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void requestInvalidation(CanvasAnimation animation, float step) {
+        mAnimationStep = step;
+        mInvalidatedStep = step;
+        if (mCanvasAnimation != animation) {
+            mCanvasAnimation = animation;
+        }
+        invalidateSelf();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void loadAnimation(CanvasAnimation animation) {
+        if (mCanvasAnimation != animation) {
+            mAnimationState.releasePreparedSnapshot();
+        }
+        mCanvasAnimation = animation;
+        animation.setLayout(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CanvasAnimation getCurrentAnimation() {
+        return mCanvasAnimation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CanvasAnimationState getAnimationState() {
+        return mAnimationState;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return the view this drawable is attached to, or null if it is not attached to a view
+     */
+    @Override
+    public View getContentView() {
+        Callback callback = getCallback();
+        return callback instanceof View ? (View) callback : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getAnimationStep() {
+        return mAnimationStep;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setAnimationStep(float animationStep) {
+        CanvasAnimation animation = mCanvasAnimation;
+        if (animation != null) {
+            animationStep = animation.quantizeStep(animationStep);
+            if (!animation.shouldDrawStep(this, animationStep)) {
+                mAnimationStep = animationStep;
+                mAnimationState.onStepSkipped();
+                return;
+            }
+        }
+        mAnimationStep = animationStep;
+        if (mAnimationDrawn && mCanvasAnimation != null && mAnimationState.isRunning()) {
+            Rect bounds = getBounds();
+            mCanvasAnimation.computeDirtyRegion(mInvalidatedStep, animationStep, bounds.width(), bounds.height(), mDirtyRegion);
+            if (mDirtyRegion.isEmpty()) {
+                mAnimationState.onStepSkipped();
+                return;
+            }
+            mDirtyRegion.offset(bounds.left, bounds.top);
+            mInvalidatedStep = animationStep;
+            //views read the dirty bounds while invalidating, from API 21.
+            mPartialInvalidation = true;
+            invalidateSelf();
+            mPartialInvalidation = false;
+        } else {
+            mInvalidatedStep = animationStep;
+            invalidateSelf();
+        }
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * While a step change is being invalidated, only the region changed by the animation is reported.
+     */
+    @Override
+    public Rect getDirtyBounds() {
+        return mPartialInvalidation ? mDirtyRegion : getBounds();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        super.onBoundsChange(bounds);
+        mDrawable.setBounds(0, 0, bounds.width(), bounds.height());
+        mAnimationState.setSize(bounds.width(), bounds.height());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setAlpha(int alpha) {
+        mDrawable.setAlpha(alpha);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        mDrawable.setColorFilter(colorFilter);
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * A running animation may leave parts of the bounds uncovered, so the host must not treat the drawable as opaque while it runs.
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public int getOpacity() {
+        if (mCanvasAnimation != null && mAnimationState.isRunning()) {
+            return PixelFormat.TRANSLUCENT;
+        }
+        return mDrawable.getOpacity();
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * Mutates the wrapped drawable, the wrapper itself is never shared.
+     */
+    @Override
+    public Drawable mutate() {
+        mDrawable.mutate();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return null, the wrapper can not be shared since it holds the animation state of its host
+     */
+    @Override
+    public ConstantState getConstantState() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIntrinsicWidth() {
+        return mDrawable.getIntrinsicWidth();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIntrinsicHeight() {
+        return mDrawable.getIntrinsicHeight();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isStateful() {
+        return mDrawable.isStateful();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean onStateChange(int[] state) {
+        return mDrawable.setState(state);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean onLevelChange(int level) {
+        return mDrawable.setLevel(level);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        if (!visible) {
+            mAnimationState.releasePreparedSnapshot();
+        }
+        mDrawable.setVisible(visible, restart);
+        return super.setVisible(visible, restart);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidateDrawable(Drawable who) {
+        //keep a snapshot of an animated drawable current.
+        mAnimationState.invalidateSnapshot(mDrawable.getBounds());
+        invalidateSelf();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void scheduleDrawable(Drawable who, Runnable what, long when) {
+        scheduleSelf(what, when);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unscheduleDrawable(Drawable who, Runnable what) {
+        unscheduleSelf(what);
+    }
+}
@@ -21,27 +21,39 @@ package com.sagiantebi.canvasanimations.layout;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Rect;
 import android.os.Build;
 import android.util.AttributeSet;
 import android.view.View;
+import android.view.ViewParent;
 import android.widget.FrameLayout;
 import com.sagiantebi.canvasanimations.animations.CanvasAnimation;
+import com.sagiantebi.canvasanimations.animations.CanvasAnimationState;
 
 /**
  * A {@link FrameLayout} implementing {@link CanvasLayout}<br/>
- * This implementation can be used as a baseline for implementing {@link CanvasLayout} in other {@link View} types
+ * The animation state and draw routing are held by a {@link CanvasLayoutDelegate}, this implementation can be used as a baseline for implementing {@link CanvasLayout} in other {@link View} types
  */
 public class CanvasAnimationFrameLayout extends FrameLayout implements CanvasLayout {
 
     /**
-     * The current animation
+     * @see CanvasLayoutDelegate#DRAW_STRATEGY_DIRECT
      */
-    private CanvasAnimation mCanvasAnimation = null;
+    public final static int DRAW_STRATEGY_DIRECT = CanvasLayoutDelegate.DRAW_STRATEGY_DIRECT;
+    /**
+     * @see CanvasLayoutDelegate#DRAW_STRATEGY_RECORD
+     */
+    public final static int DRAW_STRATEGY_RECORD = CanvasLayoutDelegate.DRAW_STRATEGY_RECORD;
 
     /**
-     * The current animation step
+     * Holds the animation state and routes drawing, the children are drawn by {@code super.dispatchDraw(Canvas)}
      */
-    private float mAnimationStep = 1f;
+    private final CanvasLayoutDelegate mDelegate = new CanvasLayoutDelegate(this, new CanvasLayoutDelegate.ChildrenDrawer() {
+        @Override
+        public void drawChildren(Canvas canvas) {
+            CanvasAnimationFrameLayout.super.dispatchDraw(canvas);
+        }
+    });
 
     /**
      * {@inheritDoc}
@@ -77,11 +89,7 @@ public class CanvasAnimationFrameLayout extends FrameLayout implements CanvasLay
      */
     @Override
     protected void dispatchDraw(Canvas canvas) {
-        if (mCanvasAnimation != null) {
-            mCanvasAnimation.draw(canvas, mAnimationStep);
-        } else {
-            commitDraw(canvas);
-        }
+        mDelegate.dispatchDraw(canvas);
     }
 
     /**
@@ -89,7 +97,21 @@ public class CanvasAnimationFrameLayout extends FrameLayout implements CanvasLay
      */
     @Override
     public void commitDraw(Canvas canvas) {
-        super.dispatchDraw(canvas);
+        mDelegate.commitDraw(canvas);
+    }
+
+    /**
+     * @see CanvasLayoutDelegate#setDrawStrategy(int)
+     */
+    public void setDrawStrategy(int drawStrategy) {
+        mDelegate.setDrawStrategy(drawStrategy);
+    }
+
+    /**
+     * @see CanvasLayoutDelegate#getDrawStrategy()
+     */
+    public int getDrawStrategy() {
+        return mDelegate.getDrawStrategy();
     }
 
     /**
@@ -97,11 +119,7 @@ public class CanvasAnimationFrameLayout extends FrameLayout implements CanvasLay
      */
     @Override
     public void requestInvalidation(CanvasAnimation animation, float step) {
-        mAnimationStep = step;
-        if (mCanvasAnimation != animation) {
-            mCanvasAnimation = animation;
-        }
-        invalidate();
+        mDelegate.requestInvalidation(animation, step);
     }
 
     /**
@@ -109,8 +127,7 @@ public class CanvasAnimationFrameLayout extends FrameLayout implements CanvasLay
      */
     @Override
     public void loadAnimation(CanvasAnimation animation) {
-        mCanvasAnimation = animation;
-        animation.setLayout(this);
+        mDelegate.loadAnimation(animation);
     }
 
     /**
@@ -118,7 +135,15 @@ public class CanvasAnimationFrameLayout extends FrameLayout implements CanvasLay
      */
     @Override
     public CanvasAnimation getCurrentAnimation() {
-        return mCanvasAnimation;
+        return mDelegate.getCurrentAnimation();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CanvasAnimationState getAnimationState() {
+        return mDelegate.getAnimationState();
     }
 
     /**
@@ -134,7 +159,7 @@ public class CanvasAnimationFrameLayout extends FrameLayout implements CanvasLay
      */
     @Override
     public float getAnimationStep() {
-        return mAnimationStep;
+        return mDelegate.getAnimationStep();
     }
 
     /**
@@ -142,7 +167,62 @@ public class CanvasAnimationFrameLayout extends FrameLayout implements CanvasLay
      */
     @Override
     public void setAnimationStep(float animationStep) {
-        mAnimationStep = animationStep;
-        invalidate();
+        mDelegate.setAnimationStep(animationStep);
+    }
+
+    /**
+     * @see CanvasLayoutDelegate#setStepCoalescingEnabled(boolean)
+     */
+    public void setStepCoalescingEnabled(boolean enabled) {
+        mDelegate.setStepCoalescingEnabled(enabled);
+    }
+
+    /**
+     * @see CanvasLayoutDelegate#isStepCoalescingEnabled()
+     */
+    public boolean isStepCoalescingEnabled() {
+        return mDelegate.isStepCoalescingEnabled();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        ViewParent parent = super.invalidateChildInParent(location, dirty);
+        if (parent != null) {
+            //the super implementation mapped the dirty region to this layout's coordinates.
+            mDelegate.onChildInvalidated(dirty);
+        }
+        return parent;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @TargetApi(Build.VERSION_CODES.O)
+    public void onDescendantInvalidated(View child, View target) {
+        super.onDescendantInvalidated(child, target);
+        mDelegate.onDescendantInvalidated(target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mDelegate.onSizeChanged(w, h);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mDelegate.onDetachedFromWindow();
     }
 }
@@ -0,0 +1,227 @@
+/*
+ * CanvasAnimationRelativeLayout.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.layout;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Build;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewParent;
+import android.widget.RelativeLayout;
+import com.sagiantebi.canvasanimations.animations.CanvasAnimation;
+import com.sagiantebi.canvasanimations.animations.CanvasAnimationState;
+
+/**
+ * A {@link RelativeLayout} implementing {@link CanvasLayout}, for animating an existing relative root without wrapping it in a {@link CanvasAnimationFrameLayout}
+ */
+public class CanvasAnimationRelativeLayout extends RelativeLayout implements CanvasLayout {
+
+    /**
+     * @see CanvasLayoutDelegate#DRAW_STRATEGY_DIRECT
+     */
+    public final static int DRAW_STRATEGY_DIRECT = CanvasLayoutDelegate.DRAW_STRATEGY_DIRECT;
+    /**
+     * @see CanvasLayoutDelegate#DRAW_STRATEGY_RECORD
+     */
+    public final static int DRAW_STRATEGY_RECORD = CanvasLayoutDelegate.DRAW_STRATEGY_RECORD;
+
+    /**
+     * Holds the animation state and routes drawing, the children are drawn by {@code super.dispatchDraw(Canvas)}
+     */
+    private final CanvasLayoutDelegate mDelegate = new CanvasLayoutDelegate(this, new CanvasLayoutDelegate.ChildrenDrawer() {
+        @Override
+        public void drawChildren(Canvas canvas) {
+            CanvasAnimationRelativeLayout.super.dispatchDraw(canvas);
+        }
+    });
+
+    /**
+     * {@inheritDoc}
+     */
+    public CanvasAnimationRelativeLayout(Context context) {
+        super(context);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CanvasAnimationRelativeLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CanvasAnimationRelativeLayout(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public CanvasAnimationRelativeLayout(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        mDelegate.dispatchDraw(canvas);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void commitDraw(Canvas canvas) {
+        mDelegate.commitDraw(canvas);
+    }
+
+    /**
+     * @see CanvasLayoutDelegate#setDrawStrategy(int)
+     */
+    public void setDrawStrategy(int drawStrategy) {
+        mDelegate.setDrawStrategy(drawStrategy);
+    }
+
+    /**
+     * @see CanvasLayoutDelegate#getDrawStrategy()
+     */
+    public int getDrawStrategy() {
+        return mDelegate.getDrawStrategy();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void requestInvalidation(CanvasAnimation animation, float step) {
+        mDelegate.requestInvalidation(animation, step);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void loadAnimation(CanvasAnimation animation) {
+        mDelegate.loadAnimation(animation);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CanvasAnimation getCurrentAnimation() {
+        return mDelegate.getCurrentAnimation();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CanvasAnimationState getAnimationState() {
+        return mDelegate.getAnimationState();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public View getContentView() {
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getAnimationStep() {
+        return mDelegate.getAnimationStep();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setAnimationStep(float animationStep) {
+        mDelegate.setAnimationStep(animationStep);
+    }
+
+    /**
+     * @see CanvasLayoutDelegate#setStepCoalescingEnabled(boolean)
+     */
+    public void setStepCoalescingEnabled(boolean enabled) {
+        mDelegate.setStepCoalescingEnabled(enabled);
+    }
+
+    /**
+     * @see CanvasLayoutDelegate#isStepCoalescingEnabled()
+     */
+    public boolean isStepCoalescingEnabled() {
+        return mDelegate.isStepCoalescingEnabled();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        ViewParent parent = super.invalidateChildInParent(location, dirty);
+        if (parent != null) {
+            //the super implementation mapped the dirty region to this layout's coordinates.
+            mDelegate.onChildInvalidated(dirty);
+        }
+        return parent;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @TargetApi(Build.VERSION_CODES.O)
+    public void onDescendantInvalidated(View child, View target) {
+        super.onDescendantInvalidated(child, target);
+        mDelegate.onDescendantInvalidated(target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mDelegate.onSizeChanged(w, h);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mDelegate.onDetachedFromWindow();
+    }
+}
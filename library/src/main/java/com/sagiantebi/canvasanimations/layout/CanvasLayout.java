@@ -19,8 +19,10 @@
 package com.sagiantebi.canvasanimations.layout;
 
 import android.graphics.Canvas;
+import android.util.Property;
 import android.view.View;
 import com.sagiantebi.canvasanimations.animations.CanvasAnimation;
+import com.sagiantebi.canvasanimations.animations.CanvasAnimationState;
 
 /**
  * A interface describing a layout which can be canvas animated using {@link CanvasAnimation}
@@ -33,6 +35,12 @@ public interface CanvasLayout {
      */
     public final static String ANIMATION_STEP = "AnimationStep";
 
+    /**
+     * The animation step as a {@link Property}, for use with {@link android.animation.ObjectAnimator#ofFloat(Object, Property, float...)}.<br/>
+     * Unlike {@link #ANIMATION_STEP}, the setter is not resolved by reflection. On API 24 and above this is a {@link android.util.FloatProperty} and the step is not boxed.
+     */
+    public final static Property<CanvasLayout, Float> ANIMATION_STEP_PROPERTY = AnimationStepProperty.create();
+
     /**
      * Tells the layout to draw itself normally. best practice would be to call the layout's {@link View#dispatchDraw(Canvas)}
      * @param canvas the canvas being drawn. should not be null.
@@ -58,9 +66,17 @@ public interface CanvasLayout {
      */
     public CanvasAnimation getCurrentAnimation();
 
+    /**
+     * Getter for the animation state of this layout - the running flag, size and buffers used by {@link CanvasAnimation} while drawing this layout.<br/>
+     * Implementations should create a single {@link CanvasAnimationState} and report size changes to it using {@link CanvasAnimationState#setSize(int, int)}.
+     * Added in 2.0 - an incompatible change for implementations written against 1.0, which must now implement it.
+     * @return the animation state of this layout, never null
+     */
+    public CanvasAnimationState getAnimationState();
+
     /**
      * Helper method for getting the view itself.
-     * @return the {@link View} representing this layout
+     * @return the {@link View} representing this layout, may be null for layouts which are not views such as {@link CanvasAnimationDrawable}
      */
     public View getContentView();
 
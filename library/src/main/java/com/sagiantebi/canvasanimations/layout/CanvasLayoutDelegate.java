@@ -0,0 +1,450 @@
+/*
+ * CanvasLayoutDelegate.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.layout;
+
+import android.annotation.TargetApi;
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.graphics.Rect;
+import android.graphics.RenderNode;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+import com.sagiantebi.canvasanimations.animations.CanvasAnimation;
+import com.sagiantebi.canvasanimations.animations.CanvasAnimationState;
+
+/**
+ * Holds the state and draw routing of a {@link CanvasLayout}, so any {@link View} can implement it by forwarding a handful of calls.<br/>
+ * The host view must forward {@link View#dispatchDraw(Canvas)}, {@link View#onSizeChanged(int, int, int, int)} and {@link View#onDetachedFromWindow()},
+ * and delegate the {@link CanvasLayout} methods. View groups should also forward child invalidations, see {@link #onChildInvalidated(Rect)}. See {@link CanvasAnimationFrameLayout} for a complete example.
+ */
+public final class CanvasLayoutDelegate {
+
+    /**
+     * Draw strategy constant - every {@link #commitDraw(Canvas)} dispatches the children directly (the default)
+     */
+    public final static int DRAW_STRATEGY_DIRECT = 0;
+    /**
+     * Draw strategy constant - while an animation is running, the children are recorded once per frame and every {@link #commitDraw(Canvas)} replays the recording.<br/>
+     * Uses a {@link RenderNode} on hardware accelerated canvases from API 29, and a {@link Picture} on software canvases.
+     * Falls back to direct drawing on hardware accelerated canvases before API 29 - a picture would run every child's {@code onDraw} in software
+     * and drop hardware only content, while direct drawing there only replays the children's display lists.
+     */
+    public final static int DRAW_STRATEGY_RECORD = 1;
+
+    /**
+     * Recording state constants, describing what {@link #commitDraw(Canvas)} should replay for the current frame
+     */
+    private final static int RECORDED_NONE = 0;
+    private final static int RECORDED_PICTURE = 1;
+    private final static int RECORDED_RENDER_NODE = 2;
+
+    /**
+     * Draws the children of the host view, usually by invoking the host's {@code super.dispatchDraw(Canvas)}
+     */
+    public interface ChildrenDrawer {
+        /**
+         * Draws the children without any animation
+         * @param canvas the canvas to draw to
+         */
+        void drawChildren(Canvas canvas);
+    }
+
+    /**
+     * The layout owning this delegate
+     */
+    private final CanvasLayout mLayout;
+
+    /**
+     * The view of {@link #mLayout}
+     */
+    private final View mView;
+
+    /**
+     * Draws the children of {@link #mView}
+     */
+    private final ChildrenDrawer mChildrenDrawer;
+
+    /**
+     * The current animation
+     */
+    private CanvasAnimation mCanvasAnimation = null;
+
+    /**
+     * The per layout state used by the current animation
+     */
+    private final CanvasAnimationState mAnimationState;
+
+    /**
+     * The current animation step
+     */
+    private float mAnimationStep = 1f;
+
+    /**
+     * True if the last frame was drawn by a running animation, meaning step changes can invalidate only their dirty region
+     */
+    private boolean mAnimationDrawn = false;
+
+    /**
+     * The step which was last invalidated, step changes are measured against it so sub-pixel changes can not accumulate unseen
+     */
+    private float mInvalidatedStep = 1f;
+
+    /**
+     * When true, step changes are applied once per frame, see {@link #setStepCoalescingEnabled(boolean)}
+     */
+    private boolean mCoalesceSteps = false;
+
+    /**
+     * True while {@link #mApplyStepRunnable} is posted for the next frame
+     */
+    private boolean mStepUpdatePending = false;
+
+    /**
+     * Applies the latest step set during the current frame
+     */
+    private final Runnable mApplyStepRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mStepUpdatePending = false;
+            invalidateStep(mAnimationStep);
+        }
+    };
+
+    /**
+     * Reusable rect for the region changed by a step transition
+     */
+    private final Rect mDirtyRegion = new Rect();
+
+    /**
+     * Reusable rect for the region of an invalidated descendant
+     */
+    private final Rect mChildDirtyRegion = new Rect();
+
+    /**
+     * The current draw strategy, one of {@link #DRAW_STRATEGY_DIRECT} or {@link #DRAW_STRATEGY_RECORD}
+     */
+    private int mDrawStrategy = DRAW_STRATEGY_DIRECT;
+
+    /**
+     * What was recorded for the frame currently being drawn
+     */
+    private int mRecordedFrame = RECORDED_NONE;
+
+    /**
+     * Reusable recordings of the children, created lazily by {@link #recordFrame(Canvas)}
+     */
+    private Picture mPicture;
+    private RenderNodeRecorder mRenderNodeRecorder;
+
+    /**
+     * Creates a delegate for a layout
+     * @param layout the layout owning this delegate, its {@link CanvasLayout#getContentView()} must return the host view
+     * @param childrenDrawer draws the children of the host view, without calling back into this delegate
+     */
+    public CanvasLayoutDelegate(CanvasLayout layout, ChildrenDrawer childrenDrawer) {
+        mLayout = layout;
+        mView = layout.getContentView();
+        mChildrenDrawer = childrenDrawer;
+        mAnimationState = new CanvasAnimationState(layout);
+    }
+
+    /**
+     * Draws the host, to be invoked from the host's {@link View#dispatchDraw(Canvas)}
+     * @param canvas the canvas of the host
+     */
+    public void dispatchDraw(Canvas canvas) {
+        if (mCanvasAnimation != null) {
+            if (mDrawStrategy == DRAW_STRATEGY_RECORD && mAnimationState.isRunning() && !mCanvasAnimation.drawsFromSnapshot(mLayout)) {
+                //the children are drawn only to render the snapshot, recording them as well would add a traversal.
+                recordFrame(canvas);
+            }
+            mAnimationDrawn = mAnimationState.isRunning();
+            mCanvasAnimation.draw(mLayout, canvas, mAnimationStep);
+            mRecordedFrame = RECORDED_NONE;
+        } else {
+            mAnimationDrawn = false;
+            commitDraw(canvas);
+        }
+    }
+
+    /**
+     * @see CanvasLayout#commitDraw(Canvas)
+     */
+    public void commitDraw(Canvas canvas) {
+        if (mRecordedFrame == RECORDED_PICTURE) {
+            canvas.drawPicture(mPicture);
+        } else if (mRecordedFrame == RECORDED_RENDER_NODE && canvas.isHardwareAccelerated()) {
+            mRenderNodeRecorder.draw(canvas);
+        } else {
+            mChildrenDrawer.drawChildren(canvas);
+        }
+    }
+
+    /**
+     * Sets the strategy used by {@link #commitDraw(Canvas)} while an animation is running.<br/>
+     * Segmented animations call {@link #commitDraw(Canvas)} once per segment, {@link #DRAW_STRATEGY_RECORD} traverses the children only once per frame
+     * while keeping them live, unlike {@link CanvasAnimation#setSnapshotEnabled(boolean)}. Frames drawn from a snapshot are not recorded.
+     * @param drawStrategy {@link #DRAW_STRATEGY_DIRECT} or {@link #DRAW_STRATEGY_RECORD}
+     */
+    public void setDrawStrategy(int drawStrategy) {
+        mDrawStrategy = drawStrategy;
+        if (drawStrategy == DRAW_STRATEGY_DIRECT) {
+            mPicture = null;
+            if (mRenderNodeRecorder != null) {
+                mRenderNodeRecorder.discard();
+                mRenderNodeRecorder = null;
+            }
+        }
+    }
+
+    /**
+     * Getter for the current draw strategy
+     * @return {@link #DRAW_STRATEGY_DIRECT} or {@link #DRAW_STRATEGY_RECORD}
+     */
+    public int getDrawStrategy() {
+        return mDrawStrategy;
+    }
+
+    /**
+     * Records the children once for the frame being drawn to the supplied canvas, if replaying the recording is cheaper than drawing directly.
+     * @param canvas the canvas of the current frame
+     */
+    private void recordFrame(Canvas canvas) {
+        //include the scroll offset, the children are drawn in scrolled coordinates and should not be culled.
+        int w = mView.getScrollX() + mView.getWidth();
+        int h = mView.getScrollY() + mView.getHeight();
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        if (canvas.isHardwareAccelerated()) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                if (mRenderNodeRecorder == null) {
+                    mRenderNodeRecorder = new RenderNodeRecorder();
+                }
+                mChildrenDrawer.drawChildren(mRenderNodeRecorder.beginRecording(w, h));
+                mRenderNodeRecorder.endRecording();
+                mRecordedFrame = RECORDED_RENDER_NODE;
+            }
+            //before API 29 the children's display lists are cheaper to replay than a picture.
+            return;
+        }
+        if (mPicture == null) {
+            mPicture = new Picture();
+        }
+        mChildrenDrawer.drawChildren(mPicture.beginRecording(w, h));
+        mPicture.endRecording();
+        mRecordedFrame = RECORDED_PICTURE;
+    }
+
+    /**
+     * @see CanvasLayout#requestInvalidation(CanvasAnimation, float)
+     */
+    public void requestInvalidation(CanvasAnimation animation, float step) {
+        mAnimationStep = step;
+        mInvalidatedStep = step;
+        if (mCanvasAnimation != animation) {
+            mCanvasAnimation = animation;
+        }
+        mView.invalidate();
+    }
+
+    /**
+     * @see CanvasLayout#loadAnimation(CanvasAnimation)
+     */
+    public void loadAnimation(CanvasAnimation animation) {
+        if (mCanvasAnimation != animation) {
+            mAnimationState.releasePreparedSnapshot();
+        }
+        mCanvasAnimation = animation;
+        animation.setLayout(mLayout);
+    }
+
+    /**
+     * @see CanvasLayout#getCurrentAnimation()
+     */
+    public CanvasAnimation getCurrentAnimation() {
+        return mCanvasAnimation;
+    }
+
+    /**
+     * @see CanvasLayout#getAnimationState()
+     */
+    public CanvasAnimationState getAnimationState() {
+        return mAnimationState;
+    }
+
+    /**
+     * @see CanvasLayout#getAnimationStep()
+     */
+    public float getAnimationStep() {
+        return mAnimationStep;
+    }
+
+    /**
+     * @see CanvasLayout#setAnimationStep(float)
+     */
+    public void setAnimationStep(float animationStep) {
+        CanvasAnimation animation = mCanvasAnimation;
+        if (animation != null) {
+            animationStep = animation.quantizeStep(animationStep);
+            if (!animation.shouldDrawStep(mLayout, animationStep)) {
+                mAnimationStep = animationStep;
+                mAnimationState.onStepSkipped();
+                return;
+            }
+        }
+        mAnimationStep = animationStep;
+        if (!mCoalesceSteps) {
+            invalidateStep(animationStep);
+        } else if (mStepUpdatePending) {
+            mAnimationState.onStepSkipped();
+        } else {
+            mStepUpdatePending = true;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                mView.postOnAnimation(mApplyStepRunnable);
+            } else {
+                mView.post(mApplyStepRunnable);
+            }
+        }
+    }
+
+    /**
+     * Enables or disables step coalescing.<br/>
+     * When enabled, only the latest step set by {@link #setAnimationStep(float)} during a frame is applied, on the next animation frame.
+     * Useful when the step is driven by scroll events, which can arrive several times per frame.
+     * @param enabled true to coalesce step changes per frame, false to apply them immediately (the default)
+     */
+    public void setStepCoalescingEnabled(boolean enabled) {
+        mCoalesceSteps = enabled;
+        if (!enabled && mStepUpdatePending) {
+            mView.removeCallbacks(mApplyStepRunnable);
+            mStepUpdatePending = false;
+            invalidateStep(mAnimationStep);
+        }
+    }
+
+    /**
+     * Returns if step coalescing is enabled
+     * @return true if step changes are applied once per frame
+     * @see #setStepCoalescingEnabled(boolean)
+     */
+    public boolean isStepCoalescingEnabled() {
+        return mCoalesceSteps;
+    }
+
+    /**
+     * Invalidates the region affected by moving from the last invalidated step to the supplied one.
+     * The whole layout is invalidated unless the running animation already drew the last frame, since starting or stopping an animation changes everything.
+     * Nothing is invalidated when the change is not visible.<br/>
+     * The partial invalidation only saves work under software rendering, hardware accelerated views from API 21 ignore the dirty rect.
+     * @param step the new step
+     */
+    @SuppressWarnings("deprecation")
+    private void invalidateStep(float step) {
+        if (mAnimationDrawn && mCanvasAnimation != null && mAnimationState.isRunning()) {
+            mCanvasAnimation.computeDirtyRegion(mInvalidatedStep, step, mView.getWidth(), mView.getHeight(), mDirtyRegion);
+            if (!mDirtyRegion.isEmpty()) {
+                mInvalidatedStep = step;
+                mView.invalidate(mDirtyRegion);
+            } else {
+                mAnimationState.onStepSkipped();
+            }
+        } else {
+            mInvalidatedStep = step;
+            mView.invalidate();
+        }
+    }
+
+    /**
+     * To be invoked from the host's {@link android.view.ViewGroup#invalidateChildInParent(int[], Rect)}, after the super implementation
+     * mapped the dirty region to the host's coordinates. Keeps a snapshot held by the running animation current.
+     * @param dirty the region invalidated by a child, in the host's coordinates
+     */
+    public void onChildInvalidated(Rect dirty) {
+        if (mAnimationState.hasSnapshot()) {
+            mAnimationState.invalidateSnapshot(dirty);
+            //the host draws from the snapshot, so a child redrawing alone is not visible.
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                mView.postInvalidateOnAnimation();
+            } else {
+                mView.postInvalidate();
+            }
+        }
+    }
+
+    /**
+     * To be invoked from the host's {@link android.view.ViewGroup#onDescendantInvalidated(View, View)}, used instead of
+     * {@link android.view.ViewGroup#invalidateChildInParent(int[], Rect)} by hardware accelerated views from API 26.
+     * @param target the invalidated descendant, its bounds are used as the dirty region
+     */
+    public void onDescendantInvalidated(View target) {
+        if (mAnimationState.hasSnapshot() && mView instanceof ViewGroup) {
+            mChildDirtyRegion.set(0, 0, target.getWidth(), target.getHeight());
+            ((ViewGroup) mView).offsetDescendantRectToMyCoords(target, mChildDirtyRegion);
+            onChildInvalidated(mChildDirtyRegion);
+        }
+    }
+
+    /**
+     * To be invoked from the host's {@link View#onSizeChanged(int, int, int, int)}
+     * @param w the new width
+     * @param h the new height
+     */
+    public void onSizeChanged(int w, int h) {
+        mAnimationState.setSize(w, h);
+    }
+
+    /**
+     * To be invoked from the host's {@link View#onDetachedFromWindow()}
+     */
+    public void onDetachedFromWindow() {
+        if (mStepUpdatePending) {
+            mView.removeCallbacks(mApplyStepRunnable);
+            mStepUpdatePending = false;
+        }
+        mAnimationState.releasePreparedSnapshot();
+    }
+
+    /**
+     * Holder for the {@link RenderNode} used by {@link #DRAW_STRATEGY_RECORD}, kept separate so older platforms never resolve it
+     */
+    @TargetApi(Build.VERSION_CODES.Q)
+    private static final class RenderNodeRecorder {
+
+        private final RenderNode mRenderNode = new RenderNode("CanvasLayoutDelegate");
+
+        Canvas beginRecording(int width, int height) {
+            mRenderNode.setPosition(0, 0, width, height);
+            return mRenderNode.beginRecording(width, height);
+        }
+
+        void endRecording() {
+            mRenderNode.endRecording();
+        }
+
+        void draw(Canvas canvas) {
+            canvas.drawRenderNode(mRenderNode);
+        }
+
+        void discard() {
+            mRenderNode.discardDisplayList();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * AnimatorReuseTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.os.Looper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.Shadows;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Lifecycle tests for the animator reused by {@link CanvasAnimation#newAnimatorInstance(com.sagiantebi.canvasanimations.layout.CanvasLayout, float, float)},
+ * running the framework's animator. The allocations of the lifecycle are measured by the benchmark module, Robolectric's looper allocates on its own.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AnimatorReuseTest {
+
+    /**
+     * A duration the scheduled animations do not reach while the tests run
+     */
+    private final static long SCHEDULED_DURATION = 60000;
+
+    private FoldAnimation mAnimation;
+    private RecordingLayout mLayout;
+
+    @Before
+    public void setUp() {
+        mAnimation = new FoldAnimation();
+        mLayout = new RecordingLayout(1080, 800);
+        mLayout.loadAnimation(mAnimation);
+    }
+
+    @After
+    public void tearDown() {
+        CanvasAnimationScheduler.getInstance().cancelAll();
+    }
+
+    @Test
+    public void animatorIsReusedAcrossRuns() {
+        Animator animator = mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+        animator.start();
+        animator.end();
+        idleMainLooper();
+        assertSame(animator, mAnimation.newAnimatorInstance(mLayout, 0f, 1f));
+        animator.start();
+        animator.cancel();
+        idleMainLooper();
+        assertSame(animator, mAnimation.newAnimatorInstance(mLayout, 1f, 0f));
+    }
+
+    @Test
+    public void runningFollowsTheAnimator() {
+        Animator animator = mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+        animator.start();
+        assertTrue(mLayout.getAnimationState().isRunning());
+        animator.end();
+        //the end is posted, giving other listeners a chance to draw the last step.
+        assertTrue(mLayout.getAnimationState().isRunning());
+        idleMainLooper();
+        assertFalse(mLayout.getAnimationState().isRunning());
+        assertEquals(1f, mLayout.getAnimationStep(), 0f);
+
+        animator = mAnimation.newAnimatorInstance(mLayout, 1f, 0f);
+        animator.start();
+        assertTrue(mLayout.getAnimationState().isRunning());
+        animator.cancel();
+        assertFalse(mLayout.getAnimationState().isRunning());
+        idleMainLooper();
+        assertFalse(mLayout.getAnimationState().isRunning());
+    }
+
+    @Test
+    public void restartIsNotStoppedByThePreviousEnd() {
+        //idling the looper runs a started animator to its end, so the restart is delivered to the listeners directly.
+        Animator animator = mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+        List<Animator.AnimatorListener> listeners = animator.getListeners();
+        for (Animator.AnimatorListener listener : listeners) {
+            listener.onAnimationStart(animator);
+        }
+        for (Animator.AnimatorListener listener : listeners) {
+            listener.onAnimationEnd(animator);
+        }
+        //started again before the posted end ran.
+        for (Animator.AnimatorListener listener : listeners) {
+            listener.onAnimationStart(animator);
+        }
+        idleMainLooper();
+        assertTrue(mLayout.getAnimationState().isRunning());
+    }
+
+    @Test
+    public void scheduleAfterEndIsNotStoppedByThePreviousEnd() {
+        Animator animator = mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+        List<Animator.AnimatorListener> listeners = animator.getListeners();
+        for (Animator.AnimatorListener listener : listeners) {
+            listener.onAnimationStart(animator);
+        }
+        for (Animator.AnimatorListener listener : listeners) {
+            listener.onAnimationEnd(animator);
+        }
+        //scheduled from an end listener, before the posted end ran.
+        CanvasAnimationScheduler scheduler = CanvasAnimationScheduler.getInstance();
+        scheduler.schedule(mLayout, mAnimation, 1f, 0f, SCHEDULED_DURATION);
+        //idling the looper runs the scheduled frames to the end as well, run the task posted first.
+        Shadows.shadowOf(Looper.getMainLooper()).runOneTask();
+        assertTrue(scheduler.isScheduled(mLayout));
+        assertTrue(mLayout.getAnimationState().isRunning());
+    }
+
+    @Test
+    public void animatorCancelsTheScheduledAnimation() {
+        CanvasAnimationScheduler scheduler = CanvasAnimationScheduler.getInstance();
+        scheduler.schedule(mLayout, mAnimation, 0f, 1f, SCHEDULED_DURATION);
+        assertTrue(scheduler.isScheduled(mLayout));
+        Animator animator = mAnimation.newAnimatorInstance(mLayout, 1f, 0f);
+        assertFalse(scheduler.isScheduled(mLayout));
+        assertFalse(mLayout.getAnimationState().isRunning());
+        animator.end();
+        assertEquals(0f, mLayout.getAnimationStep(), 0f);
+    }
+
+    @Test
+    public void reusedAnimatorIsReset() {
+        ValueAnimator animator = (ValueAnimator) mAnimation.newAnimatorInstance(mLayout, 0f, 1f);
+        long duration = animator.getDuration();
+        animator.addListener(new AnimatorListenerAdapter() {
+
+        });
+        animator.setDuration(duration * 4);
+        animator.setStartDelay(100);
+        animator.setRepeatCount(2);
+        animator.setRepeatMode(ValueAnimator.REVERSE);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+
+            }
+        });
+        int listeners = animator.getListeners().size();
+
+        assertSame(animator, mAnimation.newAnimatorInstance(mLayout, 1f, 0f));
+        assertEquals(listeners - 1, animator.getListeners().size());
+        assertEquals(duration, animator.getDuration());
+        assertEquals(0, animator.getStartDelay());
+        assertEquals(0, animator.getRepeatCount());
+        assertEquals(ValueAnimator.RESTART, animator.getRepeatMode());
+        animator.end();
+        assertEquals(0f, mLayout.getAnimationStep(), 0f);
+    }
+
+    /**
+     * Runs the tasks posted to the main thread which are due, without advancing the clock
+     */
+    private static void idleMainLooper() {
+        Shadows.shadowOf(Looper.getMainLooper()).idle();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * AttachedLayoutTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Canvas;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that drawing or preparing another layout restores the layout attached to an animation, even when the animation throws.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AttachedLayoutTest {
+
+    private final static int WIDTH = 1080;
+    private final static int HEIGHT = 800;
+
+    private ThrowingAnimation mAnimation;
+    private RecordingLayout mAttached;
+    private RecordingLayout mOther;
+
+    @Before
+    public void setUp() {
+        mAnimation = new ThrowingAnimation();
+        mAttached = new RecordingLayout(WIDTH, HEIGHT);
+        mAttached.loadAnimation(mAnimation);
+        mOther = new RecordingLayout(WIDTH / 2, HEIGHT / 2);
+        mOther.getAnimationState().setRunning(true);
+    }
+
+    @Test
+    public void failedDrawRestoresTheAttachedLayout() {
+        try {
+            mAnimation.draw(mOther, new RecordingCanvas(WIDTH / 2, HEIGHT / 2), 0.5f);
+            fail();
+        } catch (IllegalStateException expected) {
+            assertSame(mAttached, mAnimation.getLayout());
+        }
+    }
+
+    @Test
+    public void failedPrepareRestoresTheAttachedLayout() {
+        try {
+            mAnimation.prepare(mOther);
+            fail();
+        } catch (IllegalStateException expected) {
+            assertSame(mAttached, mAnimation.getLayout());
+        }
+    }
+
+    /**
+     * Throws from every frame and from {@link #onPrepare(int, int)}
+     */
+    private static class ThrowingAnimation extends CanvasAnimation {
+
+        @Override
+        protected void dispatchDraw(Canvas canvas, float step) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        protected void onPrepare(int width, int height) {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * BitmapPoolTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the shared {@link BitmapPool}, which is cleared and restored to its budget around every test.
+ * Robolectric's bitmaps allocate when erased, the allocations of a lookup are measured by the benchmark module.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class BitmapPoolTest {
+
+    private final static int SIZE = 10;
+
+    private BitmapPool mPool;
+    private long mMaxBytes;
+
+    @Before
+    public void setUp() {
+        mPool = BitmapPool.getInstance();
+        mMaxBytes = mPool.getMaxBytes();
+        mPool.clear();
+    }
+
+    @After
+    public void tearDown() {
+        mPool.setMaxBytes(mMaxBytes);
+        mPool.clear();
+    }
+
+    @Test
+    public void bitmapsAreMatchedBySizeAndConfig() {
+        Bitmap bitmap = mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        mPool.put(bitmap);
+        long hits = mPool.getHitCount();
+        assertNotSame(bitmap, mPool.get(SIZE, SIZE * 2, Bitmap.Config.ARGB_8888));
+        assertNotSame(bitmap, mPool.get(SIZE, SIZE, Bitmap.Config.RGB_565));
+        assertSame(bitmap, mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+        assertEquals(hits + 1, mPool.getHitCount());
+        assertEquals(0, mPool.getSize());
+    }
+
+    @Test
+    public void leastRecentlyReleasedIsEvictedFirst() {
+        Bitmap oldest = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        Bitmap other = Bitmap.createBitmap(SIZE, SIZE * 2, Bitmap.Config.ARGB_8888);
+        Bitmap newest = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        mPool.put(oldest);
+        mPool.put(other);
+        mPool.put(newest);
+        long evictions = mPool.getEvictionCount();
+        //the eviction order spans the buckets.
+        mPool.setMaxBytes(mPool.getSize() - 1);
+        assertTrue(oldest.isRecycled());
+        assertFalse(other.isRecycled());
+        assertFalse(newest.isRecycled());
+        assertEquals(evictions + 1, mPool.getEvictionCount());
+        assertSame(newest, mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+        assertSame(other, mPool.get(SIZE, SIZE * 2, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void criticalMemoryClearsThePool() {
+        mPool.put(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+        mPool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        assertTrue(mPool.getSize() > 0);
+        mPool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL);
+        assertEquals(0, mPool.getSize());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * CanvasAnimationRendererTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import com.sagiantebi.canvasanimations.layout.CanvasLayout;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bitmap ownership tests for {@link CanvasAnimationRenderer.FrameStream}, rendering with a single worker so the claims are ordered.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CanvasAnimationRendererTest {
+
+    private final static int SIZE = 10;
+    private final static float[] STEPS = {0.1f, 0.2f, 0.3f, 0.4f};
+    /**
+     * The worker blocks on the step of this frame, until the preceding frames were released.
+     * Its bitmap is created as the others are not released yet, so three bitmaps exist while the last frame is claimed.
+     */
+    private final static int BLOCKING_FRAME = 2;
+    private final static long TIMEOUT_SECONDS = 10;
+
+    private Bitmap mSource;
+
+    @Before
+    public void setUp() {
+        BitmapPool.getInstance().clear();
+        mSource = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+    }
+
+    @Test
+    public void freeBitmapsReturnToThePoolWithoutClose() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        CanvasAnimationRenderer renderer = new CanvasAnimationRenderer(new CanvasAnimationRenderer.AnimationFactory() {
+            @Override
+            public CanvasAnimation newAnimation() {
+                return new BlockingAnimation(STEPS[BLOCKING_FRAME], blocked, released);
+            }
+        }, 1);
+        try {
+            CanvasAnimationRenderer.FrameStream stream = renderer.render(mSource, STEPS, 3);
+            CanvasAnimationRenderer.Frame[] taken = new CanvasAnimationRenderer.Frame[BLOCKING_FRAME];
+            for (int i = 0; i < BLOCKING_FRAME; i++) {
+                taken[i] = stream.next();
+            }
+            long frameBytes = taken[0].getBitmap().getAllocationByteCount();
+            assertTrue(blocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            for (CanvasAnimationRenderer.Frame frame : taken) {
+                frame.release();
+            }
+            //two bitmaps are free while a single frame is left to claim.
+            released.countDown();
+            CanvasAnimationRenderer.Frame frame;
+            while ((frame = stream.next()) != null) {
+                frame.release();
+            }
+            assertEquals(3 * frameBytes, BitmapPool.getInstance().getSize());
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    @Test
+    public void workerAnimationsHaveNoGovernorOrListener() throws InterruptedException {
+        final CanvasAnimation[] created = new CanvasAnimation[1];
+        final boolean[] reported = new boolean[1];
+        CanvasAnimationRenderer renderer = new CanvasAnimationRenderer(new CanvasAnimationRenderer.AnimationFactory() {
+            @Override
+            public CanvasAnimation newAnimation() {
+                CanvasAnimation animation = new FoldAnimation();
+                animation.setQualityGovernor(new QualityGovernor());
+                animation.setMetricsListener(new CanvasAnimation.OnMetricsListener() {
+                    @Override
+                    public void onAnimationMetrics(CanvasLayout layout, CanvasAnimation animation, CanvasAnimationMetrics metrics) {
+                        reported[0] = true;
+                    }
+                });
+                created[0] = animation;
+                return animation;
+            }
+        }, 1);
+        try {
+            CanvasAnimationRenderer.FrameStream stream = renderer.render(mSource, STEPS, 1);
+            CanvasAnimationRenderer.Frame frame;
+            while ((frame = stream.next()) != null) {
+                frame.release();
+            }
+            assertNotNull(created[0]);
+            assertNull(created[0].getQualityGovernor());
+            assertFalse(reported[0]);
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    /**
+     * Draws nothing, blocking the worker on a single step
+     */
+    private static class BlockingAnimation extends CanvasAnimation {
+
+        private final float mBlockingStep;
+        private final CountDownLatch mBlocked;
+        private final CountDownLatch mReleased;
+
+        BlockingAnimation(float blockingStep, CountDownLatch blocked, CountDownLatch released) {
+            mBlockingStep = blockingStep;
+            mBlocked = blocked;
+            mReleased = released;
+        }
+
+        @Override
+        protected void dispatchDraw(Canvas canvas, float step) {
+            if (step == mBlockingStep) {
+                mBlocked.countDown();
+                try {
+                    assertTrue(mReleased.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
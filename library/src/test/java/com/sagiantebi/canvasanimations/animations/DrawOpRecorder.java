@@ -0,0 +1,107 @@
+/*
+ * DrawOpRecorder.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+/**
+ * Drives a {@link CanvasAnimation} on a {@link RecordingLayout} through a sequence of steps, recording the operations of every frame.
+ */
+final class DrawOpRecorder {
+
+    /**
+     * The step sequence used by the op count tests, covering both ends and the partially drawn steps
+     */
+    final static float[] STEPS = {0f, 0.1f, 0.25f, 0.5f, 0.75f, 0.9f, 1f};
+
+    private final CanvasAnimation mAnimation;
+    private final RecordingLayout mLayout;
+    private final RecordingCanvas mCanvas;
+
+    DrawOpRecorder(CanvasAnimation animation, int width, int height) {
+        mAnimation = animation;
+        mLayout = new RecordingLayout(width, height);
+        mCanvas = new RecordingCanvas(width, height);
+        mLayout.loadAnimation(animation);
+    }
+
+    RecordingLayout getLayout() {
+        return mLayout;
+    }
+
+    RecordingCanvas getCanvas() {
+        return mCanvas;
+    }
+
+    /**
+     * Marks the layout as running, as the animator does when it starts
+     */
+    void start() {
+        mLayout.getAnimationState().setRunning(true);
+    }
+
+    /**
+     * Marks the layout as stopped, as the animator does when it ends
+     */
+    void stop() {
+        mLayout.getAnimationState().setRunning(false);
+    }
+
+    /**
+     * Draws a single frame, verifying the animation restored every save it made
+     * @param step the step to draw
+     * @return the operations of the frame, indexed by the {@link RecordingCanvas} operations
+     */
+    int[] drawFrame(float step) {
+        mCanvas.reset();
+        int saveCount = mCanvas.getSaveCount();
+        mLayout.setAnimationStep(step);
+        mAnimation.draw(mLayout, mCanvas, step);
+        if (mCanvas.getSaveCount() != saveCount) {
+            throw new AssertionError("Unbalanced save at step " + step + ": " + mCanvas.getSaveCount() + " != " + saveCount);
+        }
+        return mCanvas.getCounts();
+    }
+
+    /**
+     * Starts the layout and draws a frame for each step
+     * @param steps the steps to draw
+     * @return the operations of each frame
+     */
+    int[][] run(float... steps) {
+        start();
+        int[][] frames = new int[steps.length][];
+        for (int i = 0; i < steps.length; i++) {
+            frames[i] = drawFrame(steps[i]);
+        }
+        return frames;
+    }
+
+    /**
+     * Extracts the count of a single operation from every frame
+     * @param frames the frames returned by {@link #run(float...)}
+     * @param operation the operation
+     * @return the count of each frame
+     */
+    static int[] counts(int[][] frames, int operation) {
+        int[] counts = new int[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            counts[i] = frames[i][operation];
+        }
+        return counts;
+    }
+}
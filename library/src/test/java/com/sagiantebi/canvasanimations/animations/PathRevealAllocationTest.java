@@ -0,0 +1,202 @@
+/*
+ * PathRevealAllocationTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sagiantebi.canvasanimations.animations.DrawOpRecorder.STEPS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Allocation tests for the {@link PathRevealAnimation} family.<br/>
+ * Robolectric's {@link Path} keeps its verbs in java collections, so the frames are measured with the path building replaced by {@link NullPath} -
+ * what remains is the work of the animations themselves.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PathRevealAllocationTest {
+
+    private final static int WIDTH = 1080;
+    private final static int HEIGHT = 800;
+    private final static int ITERATIONS = 200;
+
+    private PathRevealAnimation[] mAnimations;
+
+    @Before
+    public void setUp() {
+        mAnimations = new PathRevealAnimation[]{
+                new CircularRevealAnimation(0.25f, 0.75f),
+                new IrisAnimation(),
+                new DiagonalWipeAnimation(),
+                new PolygonRevealAnimation(PolygonRevealAnimation.regularPolygon(5))
+        };
+    }
+
+    @Test
+    public void clipPathIsReused() {
+        for (PathRevealAnimation animation : mAnimations) {
+            DrawOpRecorder recorder = new DrawOpRecorder(animation, WIDTH, HEIGHT);
+            recorder.start();
+            recorder.drawFrame(0.5f);
+            Path path = recorder.getCanvas().getClipPath();
+            assertNotNull(path);
+            for (float step : STEPS) {
+                recorder.drawFrame(step);
+                assertSame(animation.getClass().getSimpleName(), path, recorder.getCanvas().getClipPath());
+            }
+            //a different layout size changes the geometry, not the path.
+            recorder.getLayout().getAnimationState().setSize(WIDTH / 2, HEIGHT / 2);
+            recorder.drawFrame(0.5f);
+            assertSame(animation.getClass().getSimpleName(), path, recorder.getCanvas().getClipPath());
+        }
+    }
+
+    @Test
+    public void geometryIsKeptPerLayout() {
+        CountingCircularReveal animation = new CountingCircularReveal();
+        DrawOpRecorder large = new DrawOpRecorder(animation, WIDTH, HEIGHT);
+        DrawOpRecorder small = new DrawOpRecorder(animation, WIDTH / 2, HEIGHT / 2);
+        large.start();
+        small.start();
+        for (int i = 1; i < STEPS.length - 1; i++) {
+            large.drawFrame(STEPS[i]);
+            small.drawFrame(STEPS[i]);
+        }
+        //a shared geometry would be computed again whenever the drawn layout changes.
+        assertEquals(2, animation.mGeometryChanges);
+        animation.setCenter(0f, 0f);
+        large.drawFrame(0.5f);
+        small.drawFrame(0.5f);
+        large.drawFrame(0.5f);
+        assertEquals(4, animation.mGeometryChanges);
+    }
+
+    @Test
+    public void buildingTheClipDoesNotAllocate() {
+        assumeTrue(Allocations.isSupported());
+        final NullPath path = new NullPath();
+        final RectF bounds = new RectF();
+        final Rect region = new Rect();
+        for (final PathRevealAnimation animation : mAnimations) {
+            path.resetVerbCount();
+            final float[] geometry = new float[animation.getGeometrySize()];
+            animation.onGeometryChanged(WIDTH, HEIGHT, geometry);
+            long allocated = Allocations.measure(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 1; i < STEPS.length - 1; i++) {
+                        path.rewind();
+                        animation.buildClipPath(path, STEPS[i], WIDTH, HEIGHT, geometry);
+                        animation.computeClipBounds(STEPS[i], WIDTH, HEIGHT, geometry, bounds);
+                        animation.computeDirtyRegion(STEPS[i - 1], STEPS[i], WIDTH, HEIGHT, region);
+                    }
+                }
+            }, ITERATIONS);
+            assertEquals(animation.getClass().getSimpleName(), 0, allocated);
+            assertTrue(animation.getClass().getSimpleName(), path.getVerbCount() > 0);
+        }
+    }
+
+    @Test
+    @Config(sdk = 16)
+    public void legacyHardwareFramesDoNotAllocate() {
+        assumeTrue(Allocations.isSupported());
+        //the clip falls back to the bounds, so whole frames are measured.
+        for (final PathRevealAnimation animation : mAnimations) {
+            final DrawOpRecorder recorder = new DrawOpRecorder(animation, WIDTH, HEIGHT);
+            recorder.getCanvas().setHardwareAccelerated(true);
+            recorder.start();
+            long allocated = Allocations.measure(new Runnable() {
+                @Override
+                public void run() {
+                    for (float step : STEPS) {
+                        recorder.getCanvas().reset();
+                        animation.draw(recorder.getLayout(), recorder.getCanvas(), step);
+                    }
+                }
+            }, ITERATIONS);
+            assertEquals(animation.getClass().getSimpleName(), 0, allocated);
+        }
+    }
+
+    /**
+     * A {@link CircularRevealAnimation} counting the geometry computations
+     */
+    private static class CountingCircularReveal extends CircularRevealAnimation {
+
+        private int mGeometryChanges = 0;
+
+        @Override
+        protected void onGeometryChanged(int width, int height, float[] outGeometry) {
+            mGeometryChanges++;
+            super.onGeometryChanged(width, height, outGeometry);
+        }
+    }
+
+    /**
+     * A {@link Path} which only counts the verbs added to it
+     */
+    private static class NullPath extends Path {
+
+        private int mVerbs = 0;
+
+        int getVerbCount() {
+            return mVerbs;
+        }
+
+        void resetVerbCount() {
+            mVerbs = 0;
+        }
+
+        @Override
+        public void rewind() {
+
+        }
+
+        @Override
+        public void moveTo(float x, float y) {
+            mVerbs++;
+        }
+
+        @Override
+        public void lineTo(float x, float y) {
+            mVerbs++;
+        }
+
+        @Override
+        public void close() {
+            mVerbs++;
+        }
+
+        @Override
+        public void addCircle(float x, float y, float radius, Direction dir) {
+            mVerbs++;
+        }
+    }
+}
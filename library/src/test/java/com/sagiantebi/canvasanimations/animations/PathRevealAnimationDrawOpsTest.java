@@ -0,0 +1,101 @@
+/*
+ * PathRevealAnimationDrawOpsTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sagiantebi.canvasanimations.animations.DrawOpRecorder.STEPS;
+import static com.sagiantebi.canvasanimations.animations.DrawOpRecorder.counts;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Op count regression tests for the {@link PathRevealAnimation} family, see {@link DrawOpRecorder#STEPS}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PathRevealAnimationDrawOpsTest {
+
+    private final static int WIDTH = 1080;
+    private final static int HEIGHT = 800;
+    /**
+     * Nothing is drawn at step 0 and no clip is needed at step 1
+     */
+    private final static int[] COMMIT_DRAWS = {0, 1, 1, 1, 1, 1, 1};
+    private final static int[] CLIPS = {0, 1, 1, 1, 1, 1, 0};
+    private final static int[] NEVER = {0, 0, 0, 0, 0, 0, 0};
+
+    @Test
+    public void circularRevealClipsToPath() {
+        assertPathClip(new CircularRevealAnimation(0.25f, 0.75f), false);
+    }
+
+    @Test
+    public void irisClipsToPath() {
+        assertPathClip(new IrisAnimation(), false);
+    }
+
+    @Test
+    public void diagonalWipeClipsToPath() {
+        assertPathClip(new DiagonalWipeAnimation(), false);
+    }
+
+    @Test
+    public void polygonRevealClipsToPath() {
+        assertPathClip(new PolygonRevealAnimation(PolygonRevealAnimation.regularPolygon(5)), false);
+    }
+
+    @Test
+    public void hardwareCanvasClipsToPath() {
+        //path clipping is supported by the hardware renderer from API 18.
+        assertPathClip(new CircularRevealAnimation(), true);
+    }
+
+    @Test
+    @Config(sdk = 16)
+    public void legacyHardwareCanvasClipsToBounds() {
+        int[][] frames = record(new CircularRevealAnimation(), true);
+        assertArrayEquals(COMMIT_DRAWS, counts(frames, RecordingCanvas.COMMIT_DRAW));
+        assertArrayEquals(CLIPS, counts(frames, RecordingCanvas.CLIP_RECT));
+        assertArrayEquals(NEVER, counts(frames, RecordingCanvas.CLIP_PATH));
+    }
+
+    @Test
+    @Config(sdk = 16)
+    public void legacySoftwareCanvasClipsToPath() {
+        assertPathClip(new CircularRevealAnimation(), false);
+    }
+
+    private static void assertPathClip(CanvasAnimation animation, boolean hardwareAccelerated) {
+        int[][] frames = record(animation, hardwareAccelerated);
+        assertArrayEquals(COMMIT_DRAWS, counts(frames, RecordingCanvas.COMMIT_DRAW));
+        assertArrayEquals(CLIPS, counts(frames, RecordingCanvas.CLIP_PATH));
+        assertArrayEquals(CLIPS, counts(frames, RecordingCanvas.SAVE));
+        assertArrayEquals(CLIPS, counts(frames, RecordingCanvas.RESTORE));
+        assertArrayEquals(NEVER, counts(frames, RecordingCanvas.CLIP_RECT));
+        assertArrayEquals(NEVER, counts(frames, RecordingCanvas.CONCAT));
+    }
+
+    private static int[][] record(CanvasAnimation animation, boolean hardwareAccelerated) {
+        DrawOpRecorder recorder = new DrawOpRecorder(animation, WIDTH, HEIGHT);
+        recorder.getCanvas().setHardwareAccelerated(hardwareAccelerated);
+        return recorder.run(STEPS);
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * ProjectionCameraTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Matrix;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Verifies {@link ProjectionCamera} against {@link ReferenceCamera}, a double precision port of the platform's
+ * {@code Sk3DView} and {@code SkCamera3D::patchToMatrix}. Runs on a plain JVM, the {@link Matrix} constants are inlined by the compiler.
+ */
+public class ProjectionCameraTest {
+
+    private final static float[] ANGLES = {-89f, -60f, -45f, -30f, -1f, 0f, 0.5f, 15f, 45f, 72f, 89f};
+
+    @Test
+    public void defaultCameraIsIdentity() {
+        ProjectionCamera camera = new ProjectionCamera();
+        float[] values = new float[9];
+        camera.getValues(values);
+        assertValues(new double[]{1, 0, 0, 0, 1, 0, 0, 0, 1}, values);
+    }
+
+    @Test
+    public void rotateZQuarterTurn() {
+        ProjectionCamera camera = new ProjectionCamera();
+        camera.rotateZ(90f);
+        float[] values = new float[9];
+        camera.getValues(values);
+        //the platform camera's y axis points up, so a positive z rotation turns the x axis towards the top of the screen.
+        assertValues(new double[]{0, 1, 0, -1, 0, 0, 0, 0, 1}, values);
+    }
+
+    @Test
+    public void locationTranslatesInInches() {
+        ProjectionCamera camera = new ProjectionCamera();
+        camera.setLocation(1f, 2f, -8f);
+        float[] values = new float[9];
+        camera.getValues(values);
+        assertValues(new double[]{1, 0, -72, 0, 1, 144, 0, 0, 1}, values);
+    }
+
+    @Test
+    public void rotateXMatchesReference() {
+        for (float angle : ANGLES) {
+            ProjectionCamera camera = new ProjectionCamera();
+            ReferenceCamera reference = new ReferenceCamera();
+            camera.rotateX(angle);
+            reference.rotateX(angle);
+            assertMatches("rotateX(" + angle + ")", reference, camera);
+        }
+    }
+
+    @Test
+    public void rotateYMatchesReference() {
+        for (float angle : ANGLES) {
+            ProjectionCamera camera = new ProjectionCamera();
+            ReferenceCamera reference = new ReferenceCamera();
+            camera.rotateY(angle);
+            reference.rotateY(angle);
+            assertMatches("rotateY(" + angle + ")", reference, camera);
+        }
+    }
+
+    @Test
+    public void rotateZMatchesReference() {
+        for (float angle : ANGLES) {
+            ProjectionCamera camera = new ProjectionCamera();
+            ReferenceCamera reference = new ReferenceCamera();
+            camera.rotateZ(angle);
+            reference.rotateZ(angle);
+            assertMatches("rotateZ(" + angle + ")", reference, camera);
+        }
+    }
+
+    @Test
+    public void combinedRotationsMatchReference() {
+        ProjectionCamera camera = new ProjectionCamera();
+        ReferenceCamera reference = new ReferenceCamera();
+        camera.rotateX(30f);
+        camera.rotateY(-45f);
+        camera.rotateZ(20f);
+        reference.rotateX(30f);
+        reference.rotateY(-45f);
+        reference.rotateZ(20f);
+        assertMatches("rotateX, rotateY, rotateZ", reference, camera);
+    }
+
+    @Test
+    public void nonDefaultLocationMatchesReference() {
+        float[][] locations = {{0f, 0f, -18f}, {0f, 0f, -36f}, {3f, -2f, -12f}, {-1.5f, 4f, -4f}};
+        for (float[] location : locations) {
+            for (float angle : ANGLES) {
+                ProjectionCamera camera = new ProjectionCamera();
+                ReferenceCamera reference = new ReferenceCamera();
+                camera.setLocation(location[0], location[1], location[2]);
+                reference.setLocation(location[0], location[1], location[2]);
+                camera.rotateX(angle);
+                camera.rotateY(angle / 2f);
+                reference.rotateX(angle);
+                reference.rotateY(angle / 2f);
+                assertMatches("location (" + location[0] + ", " + location[1] + ", " + location[2] + "), angle " + angle, reference, camera);
+            }
+        }
+    }
+
+    @Test
+    public void pivotMatchesPreAndPostTranslate() {
+        float[][] pivots = {{0f, 0f}, {540f, 960f}, {540f, 240f}, {1080f, 960f}, {-20f, 33.5f}};
+        for (float[] pivot : pivots) {
+            for (float angle : ANGLES) {
+                ProjectionCamera camera = new ProjectionCamera();
+                ReferenceCamera reference = new ReferenceCamera();
+                camera.setLocation(0f, 0f, -18f);
+                reference.setLocation(0f, 0f, -18f);
+                camera.rotateX(angle);
+                camera.rotateZ(angle / 3f);
+                reference.rotateX(angle);
+                reference.rotateZ(angle / 3f);
+                //Matrix.preTranslate(-x, -y) then postTranslate(x, y), i.e. T(pivot) * M * T(-pivot).
+                double[] translate = {1, 0, pivot[0], 0, 1, pivot[1], 0, 0, 1};
+                double[] translateBack = {1, 0, -pivot[0], 0, 1, -pivot[1], 0, 0, 1};
+                double[] expected = multiply(translate, multiply(reference.getValues(), translateBack));
+                float[] values = new float[9];
+                camera.getValues(values, pivot[0], pivot[1]);
+                //the translation cancels terms in the order of the pivot, scale the tolerance accordingly.
+                double magnitude = 1 + Math.abs(pivot[0]) + Math.abs(pivot[1]);
+                assertValues("pivot (" + pivot[0] + ", " + pivot[1] + "), angle " + angle, expected, values, magnitude);
+            }
+        }
+    }
+
+    @Test
+    public void pivotIsFixedPoint() {
+        ProjectionCamera camera = new ProjectionCamera();
+        camera.setLocation(0f, 0f, -18f);
+        float[] values = new float[9];
+        for (float angle : ANGLES) {
+            camera.reset();
+            camera.rotateX(angle);
+            camera.getValues(values, 540f, 480f);
+            assertEquals(480f, ProjectionCamera.mapY(values, 540f, 480f), 1e-3f);
+            camera.reset();
+            camera.rotateY(angle);
+            camera.getValues(values, 270f, 960f);
+            assertEquals(270f, ProjectionCamera.mapX(values, 270f, 960f), 1e-3f);
+        }
+    }
+
+    @Test
+    public void mapMatchesHomogeneousMultiply() {
+        ProjectionCamera camera = new ProjectionCamera();
+        camera.rotateX(-60f);
+        camera.rotateY(25f);
+        float[] values = new float[9];
+        camera.getValues(values, 300f, 200f);
+        float x = 123f;
+        float y = 456f;
+        double w = values[Matrix.MPERSP_0] * x + values[Matrix.MPERSP_1] * y + values[Matrix.MPERSP_2];
+        double mappedX = (values[Matrix.MSCALE_X] * x + values[Matrix.MSKEW_X] * y + values[Matrix.MTRANS_X]) / w;
+        double mappedY = (values[Matrix.MSKEW_Y] * x + values[Matrix.MSCALE_Y] * y + values[Matrix.MTRANS_Y]) / w;
+        assertEquals(mappedX, ProjectionCamera.mapX(values, x, y), 1e-3);
+        assertEquals(mappedY, ProjectionCamera.mapY(values, x, y), 1e-3);
+    }
+
+    @Test
+    public void resetKeepsLocation() {
+        ProjectionCamera camera = new ProjectionCamera();
+        ReferenceCamera reference = new ReferenceCamera();
+        camera.setLocation(0f, 0f, -36f);
+        reference.setLocation(0f, 0f, -36f);
+        camera.rotateX(45f);
+        camera.reset();
+        camera.rotateY(10f);
+        reference.rotateY(10f);
+        assertMatches("reset", reference, camera);
+    }
+
+    private static void assertMatches(String message, ReferenceCamera reference, ProjectionCamera camera) {
+        float[] values = new float[9];
+        camera.getValues(values);
+        assertValues(message, reference.getValues(), values);
+    }
+
+    private static void assertValues(double[] expected, float[] actual) {
+        assertValues("values", expected, actual);
+    }
+
+    private static void assertValues(String message, double[] expected, float[] actual) {
+        assertValues(message, expected, actual, 1);
+    }
+
+    private static void assertValues(String message, double[] expected, float[] actual, double magnitude) {
+        for (int i = 0; i < 9; i++) {
+            double tolerance = 1e-5 * (magnitude + Math.abs(expected[i]));
+            if (Math.abs(expected[i] - actual[i]) > tolerance) {
+                fail(message + ": value " + i + " expected " + expected[i] + " but was " + actual[i]);
+            }
+        }
+    }
+
+    /**
+     * Multiplies two row major 3x3 matrices
+     */
+    private static double[] multiply(double[] a, double[] b) {
+        double[] result = new double[9];
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                double sum = 0;
+                for (int i = 0; i < 3; i++) {
+                    sum += a[row * 3 + i] * b[i * 3 + column];
+                }
+                result[row * 3 + column] = sum;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A straightforward port of the platform camera - {@code Sk3DView} accumulates rotations and {@code SkCamera3D} projects a unit patch.
+     * Written from the Skia sources with textbook rotation matrices, independently of {@link ProjectionCamera}.
+     */
+    private static final class ReferenceCamera {
+
+        private double[] mRotation = {1, 0, 0, 0, 1, 0, 0, 0, 1};
+        private double[] mLocation = {0, 0, -576};
+        private double[] mObserver = {0, 0, -576};
+
+        void setLocation(double x, double y, double z) {
+            //Sk3DView::setCameraLocation - inches to points, the observer follows the camera's depth only.
+            mLocation = new double[]{x * 72, y * 72, z * 72};
+            mObserver = new double[]{0, 0, z * 72};
+        }
+
+        void rotateX(double degrees) {
+            double c = Math.cos(Math.toRadians(degrees));
+            double s = Math.sin(Math.toRadians(degrees));
+            mRotation = multiply(mRotation, new double[]{1, 0, 0, 0, c, -s, 0, s, c});
+        }
+
+        void rotateY(double degrees) {
+            //Sk3DView rotates around (0, -1, 0).
+            double c = Math.cos(Math.toRadians(degrees));
+            double s = Math.sin(Math.toRadians(degrees));
+            mRotation = multiply(mRotation, new double[]{c, 0, -s, 0, 1, 0, s, 0, c});
+        }
+
+        void rotateZ(double degrees) {
+            double c = Math.cos(Math.toRadians(degrees));
+            double s = Math.sin(Math.toRadians(degrees));
+            mRotation = multiply(mRotation, new double[]{c, -s, 0, s, c, 0, 0, 0, 1});
+        }
+
+        double[] getValues() {
+            //SkPatch3D - the unit vectors u = (1, 0, 0) and v = (0, -1, 0) at the origin, transformed by the accumulated rotation.
+            double[] u = transform(new double[]{1, 0, 0});
+            double[] v = transform(new double[]{0, -1, 0});
+            double[] origin = {0, 0, 0};
+            //SkCamera3D::doUpdate with the default axis (0, 0, 1) and zenith (0, -1, 0).
+            double[] axis = normalize(new double[]{0, 0, 1});
+            double[] zenith = {0, -1, 0};
+            double projection = dot(axis, zenith);
+            zenith = normalize(new double[]{zenith[0] - projection * axis[0], zenith[1] - projection * axis[1], zenith[2] - projection * axis[2]});
+            double[] cross = {
+                    axis[1] * zenith[2] - axis[2] * zenith[1],
+                    axis[2] * zenith[0] - axis[0] * zenith[2],
+                    axis[0] * zenith[1] - axis[1] * zenith[0]};
+            double ox = mObserver[0], oy = mObserver[1], oz = mObserver[2];
+            double[] row0 = {ox * axis[0] - oz * cross[0], ox * axis[1] - oz * cross[1], ox * axis[2] - oz * cross[2]};
+            double[] row1 = {oy * axis[0] - oz * zenith[0], oy * axis[1] - oz * zenith[1], oy * axis[2] - oz * zenith[2]};
+            double[] row2 = axis;
+            //SkCamera3D::patchToMatrix
+            double[] diff = {origin[0] - mLocation[0], origin[1] - mLocation[1], origin[2] - mLocation[2]};
+            double d = dot(diff, row2);
+            double[] values = new double[9];
+            values[Matrix.MSCALE_X] = dot(u, row0) / d;
+            values[Matrix.MSKEW_Y] = dot(u, row1) / d;
+            values[Matrix.MPERSP_0] = dot(u, row2) / d;
+            values[Matrix.MSKEW_X] = dot(v, row0) / d;
+            values[Matrix.MSCALE_Y] = dot(v, row1) / d;
+            values[Matrix.MPERSP_1] = dot(v, row2) / d;
+            values[Matrix.MTRANS_X] = dot(diff, row0) / d;
+            values[Matrix.MTRANS_Y] = dot(diff, row1) / d;
+            values[Matrix.MPERSP_2] = 1;
+            return values;
+        }
+
+        private double[] transform(double[] vector) {
+            double[] r = mRotation;
+            return new double[]{
+                    r[0] * vector[0] + r[1] * vector[1] + r[2] * vector[2],
+                    r[3] * vector[0] + r[4] * vector[1] + r[5] * vector[2],
+                    r[6] * vector[0] + r[7] * vector[1] + r[8] * vector[2]};
+        }
+
+        private static double dot(double[] a, double[] b) {
+            return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+        }
+
+        private static double[] normalize(double[] a) {
+            double length = Math.sqrt(dot(a, a));
+            return new double[]{a[0] / length, a[1] / length, a[2] / length};
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * RecordingCanvas.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * A {@link Canvas} which draws nothing and counts the operations issued by the animations instead.<br/>
+ * Nothing is ever rejected by the clip, so the counts reflect what the animation decided to draw rather than what the renderer would skip.
+ */
+class RecordingCanvas extends Canvas {
+
+    /**
+     * The recorded operations, indexes into {@link #getCount(int)}
+     */
+    final static int SAVE = 0;
+    final static int RESTORE = 1;
+    final static int CLIP_RECT = 2;
+    final static int CLIP_PATH = 3;
+    final static int CONCAT = 4;
+    final static int DRAW_BITMAP = 5;
+    final static int DRAW_PICTURE = 6;
+    final static int DRAW = 7;
+    final static int COMMIT_DRAW = 8;
+    private final static int OPERATIONS = 9;
+
+    private final int[] mCounts = new int[OPERATIONS];
+    private final int mWidth;
+    private final int mHeight;
+    private boolean mHardwareAccelerated = false;
+    private int mSaveCount = 1;
+    private Path mClipPath;
+
+    RecordingCanvas(int width, int height) {
+        mWidth = width;
+        mHeight = height;
+    }
+
+    /**
+     * Makes the canvas report itself as hardware accelerated, like the canvas of a view's display list
+     * @param hardwareAccelerated true to report hardware acceleration
+     */
+    void setHardwareAccelerated(boolean hardwareAccelerated) {
+        mHardwareAccelerated = hardwareAccelerated;
+    }
+
+    /**
+     * Records an operation, used by {@link RecordingLayout} for the child traversals
+     * @param operation the operation
+     */
+    void record(int operation) {
+        mCounts[operation]++;
+    }
+
+    /**
+     * Getter for the number of times an operation was recorded since the last {@link #reset()}
+     * @param operation the operation
+     * @return the count
+     */
+    int getCount(int operation) {
+        return mCounts[operation];
+    }
+
+    /**
+     * Getter for the number of all recorded operations, excluding the child traversals
+     * @return the count
+     */
+    int getOperationCount() {
+        int total = 0;
+        for (int i = 0; i < COMMIT_DRAW; i++) {
+            total += mCounts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns a copy of the counts since the last {@link #reset()}
+     * @return the counts by operation
+     */
+    int[] getCounts() {
+        return mCounts.clone();
+    }
+
+    /**
+     * Clears the counts
+     */
+    void reset() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            mCounts[i] = 0;
+        }
+    }
+
+    /**
+     * Getter for the path of the last {@link #clipPath(Path)}, kept across {@link #reset()}
+     * @return the path, or null if no path was clipped to
+     */
+    Path getClipPath() {
+        return mClipPath;
+    }
+
+    @Override
+    public boolean isHardwareAccelerated() {
+        return mHardwareAccelerated;
+    }
+
+    @Override
+    public int getWidth() {
+        return mWidth;
+    }
+
+    @Override
+    public int getHeight() {
+        return mHeight;
+    }
+
+    @Override
+    public int save() {
+        record(SAVE);
+        return mSaveCount++;
+    }
+
+    @Override
+    public void restore() {
+        record(RESTORE);
+        if (mSaveCount <= 1) {
+            throw new IllegalStateException("Underflow in restore");
+        }
+        mSaveCount--;
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        record(RESTORE);
+        if (saveCount < 1 || saveCount > mSaveCount) {
+            throw new IllegalArgumentException("Underflow in restoreToCount " + saveCount);
+        }
+        mSaveCount = saveCount;
+    }
+
+    @Override
+    public int getSaveCount() {
+        return mSaveCount;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+
+    }
+
+    @Override
+    public void concat(Matrix matrix) {
+        record(CONCAT);
+    }
+
+    @Override
+    public boolean clipRect(Rect rect) {
+        record(CLIP_RECT);
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(RectF rect) {
+        record(CLIP_RECT);
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom) {
+        record(CLIP_RECT);
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(int left, int top, int right, int bottom) {
+        record(CLIP_RECT);
+        return true;
+    }
+
+    @Override
+    public boolean clipPath(Path path) {
+        record(CLIP_PATH);
+        mClipPath = path;
+        return true;
+    }
+
+    @Override
+    public boolean quickReject(float left, float top, float right, float bottom, EdgeType type) {
+        return false;
+    }
+
+    @Override
+    public boolean getClipBounds(Rect bounds) {
+        bounds.set(0, 0, mWidth, mHeight);
+        return true;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        record(DRAW_BITMAP);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        record(DRAW_BITMAP);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        record(DRAW_BITMAP);
+    }
+
+    @Override
+    public void drawPicture(Picture picture) {
+        record(DRAW_PICTURE);
+    }
+
+    @Override
+    public void drawColor(int color) {
+        record(DRAW);
+    }
+
+    @Override
+    public void drawColor(int color, PorterDuff.Mode mode) {
+        record(DRAW);
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        record(DRAW);
+    }
+}
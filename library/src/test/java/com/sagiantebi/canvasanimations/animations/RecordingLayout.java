@@ -0,0 +1,108 @@
+/*
+ * RecordingLayout.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.view.View;
+import com.sagiantebi.canvasanimations.layout.CanvasLayout;
+
+/**
+ * A {@link CanvasLayout} without a view, whose children are a single rect. Child traversals are recorded on a {@link RecordingCanvas}.
+ */
+class RecordingLayout implements CanvasLayout {
+
+    private final CanvasAnimationState mAnimationState = new CanvasAnimationState(this);
+    private final Paint mPaint = new Paint();
+    private CanvasAnimation mAnimation;
+    private float mAnimationStep = 0f;
+    private int mInvalidations = 0;
+    private int mCommitDraws = 0;
+
+    RecordingLayout(int width, int height) {
+        mAnimationState.setSize(width, height);
+    }
+
+    /**
+     * Getter for the number of {@link #requestInvalidation(CanvasAnimation, float)} calls
+     * @return the count
+     */
+    int getInvalidationCount() {
+        return mInvalidations;
+    }
+
+    /**
+     * Getter for the number of {@link #commitDraw(Canvas)} calls on any canvas, including the renders into a snapshot
+     * @return the count
+     */
+    int getCommitDrawCount() {
+        return mCommitDraws;
+    }
+
+    @Override
+    public void commitDraw(Canvas canvas) {
+        mCommitDraws++;
+        if (canvas instanceof RecordingCanvas) {
+            ((RecordingCanvas) canvas).record(RecordingCanvas.COMMIT_DRAW);
+        }
+        canvas.drawRect(0, 0, mAnimationState.getWidth(), mAnimationState.getHeight(), mPaint);
+    }
+
+    @Override
+    public void requestInvalidation(CanvasAnimation animation, float step) {
+        mInvalidations++;
+        mAnimationStep = step;
+    }
+
+    @Override
+    public void loadAnimation(CanvasAnimation animation) {
+        if (mAnimation != animation) {
+            mAnimationState.releasePreparedSnapshot();
+        }
+        mAnimation = animation;
+        if (animation != null) {
+            animation.setLayout(this);
+        }
+    }
+
+    @Override
+    public CanvasAnimation getCurrentAnimation() {
+        return mAnimation;
+    }
+
+    @Override
+    public CanvasAnimationState getAnimationState() {
+        return mAnimationState;
+    }
+
+    @Override
+    public View getContentView() {
+        return null;
+    }
+
+    @Override
+    public void setAnimationStep(float animationStep) {
+        mAnimationStep = animationStep;
+    }
+
+    @Override
+    public float getAnimationStep() {
+        return mAnimationStep;
+    }
+}
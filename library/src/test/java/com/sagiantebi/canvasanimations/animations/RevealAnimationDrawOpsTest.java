@@ -0,0 +1,69 @@
+/*
+ * RevealAnimationDrawOpsTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.sagiantebi.canvasanimations.animations.DrawOpRecorder.STEPS;
+import static com.sagiantebi.canvasanimations.animations.DrawOpRecorder.counts;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Op count regression tests for the rectangular reveals, see {@link DrawOpRecorder#STEPS}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RevealAnimationDrawOpsTest {
+
+    private final static int WIDTH = 1080;
+    private final static int HEIGHT = 800;
+    private final static int[] ONCE_PER_FRAME = {1, 1, 1, 1, 1, 1, 1};
+    private final static int[] NEVER = {0, 0, 0, 0, 0, 0, 0};
+
+    @Test
+    public void revealClipsOncePerFrame() {
+        assertSingleClip(new RevealAnimation());
+    }
+
+    @Test
+    public void revealFromTopClipsOncePerFrame() {
+        assertSingleClip(new RevealFromTopAnimation());
+    }
+
+    @Test
+    public void revealFromBottomClipsOncePerFrame() {
+        assertSingleClip(new RevealFromBottomAnimation());
+    }
+
+    @Test
+    public void revealFromCenterClipsOncePerFrame() {
+        assertSingleClip(new RevealFromCenterAnimation());
+    }
+
+    private static void assertSingleClip(CanvasAnimation animation) {
+        int[][] frames = new DrawOpRecorder(animation, WIDTH, HEIGHT).run(STEPS);
+        assertArrayEquals(ONCE_PER_FRAME, counts(frames, RecordingCanvas.COMMIT_DRAW));
+        assertArrayEquals(ONCE_PER_FRAME, counts(frames, RecordingCanvas.CLIP_RECT));
+        //the layout saves around the animation, the reveals only clip.
+        assertArrayEquals(NEVER, counts(frames, RecordingCanvas.SAVE));
+        assertArrayEquals(NEVER, counts(frames, RecordingCanvas.CONCAT));
+        assertArrayEquals(NEVER, counts(frames, RecordingCanvas.CLIP_PATH));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * SegmentedAnimationDrawOpsTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import com.sagiantebi.canvasanimations.layout.CanvasLayout;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.sagiantebi.canvasanimations.animations.DrawOpRecorder.STEPS;
+import static com.sagiantebi.canvasanimations.animations.DrawOpRecorder.counts;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Op count regression tests for {@link FoldAnimation} and {@link ShadesAnimation}, see {@link DrawOpRecorder#STEPS}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SegmentedAnimationDrawOpsTest {
+
+    private final static int WIDTH = 1080;
+    private final static int HEIGHT = 800;
+    private final static int SHORT_HEIGHT = 40;
+    private final static long SECOND_NANOS = 1000000000L;
+
+    @Test
+    public void foldDrawsUnfoldedSegments() {
+        int[][] frames = new DrawOpRecorder(new FoldAnimation(), WIDTH, HEIGHT).run(STEPS);
+        //sequential folds - a segment starts unfolding once the previous one is flat.
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3, 4, 1}, counts(frames, RecordingCanvas.COMMIT_DRAW));
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3, 4, 0}, counts(frames, RecordingCanvas.CONCAT));
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3, 4, 0}, counts(frames, RecordingCanvas.SAVE));
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3, 4, 0}, counts(frames, RecordingCanvas.CLIP_RECT));
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3, 4, 0}, counts(frames, RecordingCanvas.RESTORE));
+    }
+
+    @Test
+    public void horizontalFoldMatchesVertical() {
+        FoldAnimation animation = new FoldAnimation();
+        animation.setOrientation(SegmentedAnimation.ORIENTATION_HORIZONTAL);
+        int[][] frames = new DrawOpRecorder(animation, WIDTH, HEIGHT).run(STEPS);
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3, 4, 1}, counts(frames, RecordingCanvas.COMMIT_DRAW));
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3, 4, 0}, counts(frames, RecordingCanvas.CONCAT));
+    }
+
+    @Test
+    public void shadesTraverseChildrenOncePerShade() {
+        int[][] frames = new DrawOpRecorder(new ShadesAnimation(), WIDTH, HEIGHT).run(STEPS);
+        //every shade turns at once, so a partial step draws all 8.
+        assertArrayEquals(new int[]{0, 8, 8, 8, 8, 8, 1}, counts(frames, RecordingCanvas.COMMIT_DRAW));
+        assertArrayEquals(new int[]{0, 8, 8, 8, 8, 8, 0}, counts(frames, RecordingCanvas.CONCAT));
+        assertArrayEquals(new int[]{0, 8, 8, 8, 8, 8, 0}, counts(frames, RecordingCanvas.SAVE));
+        assertArrayEquals(new int[]{0, 8, 8, 8, 8, 8, 0}, counts(frames, RecordingCanvas.CLIP_RECT));
+        assertArrayEquals(new int[]{0, 8, 8, 8, 8, 8, 0}, counts(frames, RecordingCanvas.RESTORE));
+    }
+
+    @Test
+    public void transformTableDrawsTheSameOperations() {
+        FoldAnimation fold = new FoldAnimation();
+        fold.setTransformTableEnabled(true);
+        ShadesAnimation shades = new ShadesAnimation();
+        shades.setTransformTableEnabled(true);
+        int[][] foldFrames = new DrawOpRecorder(fold, WIDTH, HEIGHT).run(STEPS);
+        int[][] shadesFrames = new DrawOpRecorder(shades, WIDTH, HEIGHT).run(STEPS);
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3, 4, 1}, counts(foldFrames, RecordingCanvas.COMMIT_DRAW));
+        assertArrayEquals(new int[]{0, 8, 8, 8, 8, 8, 1}, counts(shadesFrames, RecordingCanvas.COMMIT_DRAW));
+    }
+
+    @Test
+    public void governorDoesNotRebuildTheTransformTable() {
+        FoldAnimation fold = new FoldAnimation();
+        fold.setTransformTableEnabled(true);
+        QualityGovernor governor = new QualityGovernor();
+        //only the level forced below changes the quality.
+        governor.setBudgetNanos(SECOND_NANOS);
+        governor.setDegradeFrames(1);
+        governor.setRestoreFrames(Integer.MAX_VALUE);
+        fold.setQualityGovernor(governor);
+        DrawOpRecorder recorder = new DrawOpRecorder(fold, WIDTH, HEIGHT);
+        //built for the full segment count when the animation was loaded.
+        SegmentTransformTable table = recorder.getLayout().getAnimationState().mSegmentGeometry.mTransformTable;
+        assertTrue(table.isValid(fold.getNumberOfSegments(), WIDTH, HEIGHT));
+        recorder.start();
+        assertEquals(2, recorder.drawFrame(0.5f)[RecordingCanvas.COMMIT_DRAW]);
+        governor.onFrameDrawn(SECOND_NANOS * 2);
+        //half the segments, the first one flat - drawn without the table, which is kept for the full quality.
+        assertEquals(1, recorder.drawFrame(0.5f)[RecordingCanvas.COMMIT_DRAW]);
+        assertTrue(table.isValid(fold.getNumberOfSegments(), WIDTH, HEIGHT));
+        governor.reset();
+        assertEquals(2, recorder.drawFrame(0.5f)[RecordingCanvas.COMMIT_DRAW]);
+        assertTrue(table.isValid(fold.getNumberOfSegments(), WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void endpointsSkipTheSegments() {
+        int[][] frames = new DrawOpRecorder(new FoldAnimation(), WIDTH, HEIGHT).run(0f, 1f);
+        //nothing at step 0, the plain content once at step 1 - no segment is set up at either end.
+        assertArrayEquals(new int[]{0, 1}, counts(frames, RecordingCanvas.COMMIT_DRAW));
+        assertEquals(0, frames[0][RecordingCanvas.DRAW]);
+        assertEquals(0, frames[1][RecordingCanvas.CONCAT]);
+        assertEquals(0, frames[1][RecordingCanvas.CLIP_RECT]);
+    }
+
+    @Test
+    public void foldCullsEdgeOnSegments() {
+        //the first segment is flat and the second has barely started turning.
+        float step = 0.2501f;
+        int[] tall = new DrawOpRecorder(new FoldAnimation(), WIDTH, HEIGHT).run(step)[0];
+        int[] low = new DrawOpRecorder(new FoldAnimation(), WIDTH, SHORT_HEIGHT).run(step)[0];
+        assertEquals(2, tall[RecordingCanvas.COMMIT_DRAW]);
+        //on a short layout the second segment projects to less than a pixel and is skipped.
+        assertEquals(1, low[RecordingCanvas.COMMIT_DRAW]);
+        assertEquals(1, low[RecordingCanvas.CONCAT]);
+    }
+
+    @Test
+    public void shadesCullEdgeOnSegments() {
+        float step = 0.001f;
+        int[] tall = new DrawOpRecorder(new ShadesAnimation(), WIDTH, HEIGHT).run(step)[0];
+        int[] low = new DrawOpRecorder(new ShadesAnimation(), WIDTH, SHORT_HEIGHT).run(step)[0];
+        assertEquals(8, tall[RecordingCanvas.COMMIT_DRAW]);
+        assertEquals(0, low[RecordingCanvas.COMMIT_DRAW]);
+        assertEquals(0, low[RecordingCanvas.SAVE]);
+    }
+
+    @Test
+    public void stoppedLayoutDrawsChildrenOnly() {
+        DrawOpRecorder recorder = new DrawOpRecorder(new ShadesAnimation(), WIDTH, HEIGHT);
+        int[] frame = recorder.drawFrame(0.5f);
+        assertEquals(1, frame[RecordingCanvas.COMMIT_DRAW]);
+        assertEquals(0, frame[RecordingCanvas.SAVE]);
+        assertEquals(0, frame[RecordingCanvas.CONCAT]);
+        assertEquals(0, frame[RecordingCanvas.CLIP_RECT]);
+    }
+
+    @Test
+    public void metricsCountChildTraversals() {
+        ShadesAnimation animation = new ShadesAnimation();
+        final int[] commitDraws = new int[1];
+        animation.setMetricsListener(new CanvasAnimation.OnMetricsListener() {
+            @Override
+            public void onAnimationMetrics(CanvasLayout layout, CanvasAnimation animation, CanvasAnimationMetrics metrics) {
+                commitDraws[0] = metrics.getCommitDrawCount();
+            }
+        });
+        DrawOpRecorder recorder = new DrawOpRecorder(animation, WIDTH, HEIGHT);
+        int[][] frames = recorder.run(STEPS);
+        recorder.stop();
+        int recorded = 0;
+        for (int count : counts(frames, RecordingCanvas.COMMIT_DRAW)) {
+            recorded += count;
+        }
+        assertEquals(recorded, commitDraws[0]);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * SnapshotPrepareTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.animations;
+
+import android.graphics.Bitmap;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link CanvasAnimation#prepare(com.sagiantebi.canvasanimations.layout.CanvasLayout)} with snapshots enabled.<br/>
+ * The invariant is that the first frame after prepare() does not render the snapshot, checked by counting the renders of the children
+ * with {@link RecordingLayout#getCommitDrawCount()}. These tests count operations only, they do not measure how long any frame takes.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SnapshotPrepareTest {
+
+    private final static int WIDTH = 1080;
+    private final static int HEIGHT = 800;
+
+    private FoldAnimation mAnimation;
+    private DrawOpRecorder mRecorder;
+    private RecordingLayout mLayout;
+    private CanvasAnimationState mState;
+
+    @Before
+    public void setUp() {
+        BitmapPool.getInstance().clear();
+        mAnimation = new FoldAnimation();
+        mAnimation.setSnapshotEnabled(true);
+        mRecorder = new DrawOpRecorder(mAnimation, WIDTH, HEIGHT);
+        mLayout = mRecorder.getLayout();
+        mState = mLayout.getAnimationState();
+    }
+
+    @Test
+    public void firstFrameAfterPrepareDoesNotRenderSnapshot() {
+        mAnimation.prepare(mLayout);
+        Bitmap prepared = mState.mSnapshot;
+        assertNotNull(prepared);
+        int rendersBeforeFirstFrame = mLayout.getCommitDrawCount();
+        mRecorder.start();
+        int[] first = mRecorder.drawFrame(0.5f);
+        //the children are neither rendered into the snapshot nor dispatched, the frame draws the prepared snapshot's slices.
+        assertEquals(rendersBeforeFirstFrame, mLayout.getCommitDrawCount());
+        assertSame(prepared, mState.mSnapshot);
+        assertEquals(0, first[RecordingCanvas.COMMIT_DRAW]);
+        assertEquals(2, first[RecordingCanvas.DRAW_BITMAP]);
+        //and does the operations of every later frame.
+        assertArrayEquals(mRecorder.drawFrame(0.5f), first);
+    }
+
+    @Test
+    public void firstFrameWithoutPrepareRendersSnapshot() {
+        mRecorder.start();
+        mRecorder.drawFrame(0.5f);
+        assertNotNull(mState.mSnapshot);
+        assertEquals(1, mLayout.getCommitDrawCount());
+        mRecorder.drawFrame(0.5f);
+        assertEquals(1, mLayout.getCommitDrawCount());
+    }
+
+    @Test
+    public void stoppedFramesKeepThePreparedSnapshot() {
+        mAnimation.prepare(mLayout);
+        Bitmap snapshot = mState.mSnapshot;
+        //frames drawn before the run starts dispatch the children as usual.
+        assertEquals(1, mRecorder.drawFrame(0f)[RecordingCanvas.COMMIT_DRAW]);
+        assertSame(snapshot, mState.mSnapshot);
+        mRecorder.start();
+        mRecorder.drawFrame(0.5f);
+        assertSame(snapshot, mState.mSnapshot);
+        assertEquals(2, mLayout.getCommitDrawCount());
+    }
+
+    @Test
+    public void releasedPreparedSnapshotReturnsToThePool() {
+        mAnimation.prepare(mLayout);
+        Bitmap snapshot = mState.mSnapshot;
+        mState.releasePreparedSnapshot();
+        assertNull(mState.mSnapshot);
+        assertSame(snapshot, BitmapPool.getInstance().get(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void runningSnapshotIsNotReleasedAsPrepared() {
+        mAnimation.prepare(mLayout);
+        Bitmap snapshot = mState.mSnapshot;
+        mRecorder.start();
+        mRecorder.drawFrame(0.5f);
+        mState.releasePreparedSnapshot();
+        assertSame(snapshot, mState.mSnapshot);
+    }
+
+    @Test
+    public void loadingAnotherAnimationReleasesThePreparedSnapshot() {
+        mAnimation.prepare(mLayout);
+        Bitmap snapshot = mState.mSnapshot;
+        mLayout.loadAnimation(new ShadesAnimation());
+        assertNull(mState.mSnapshot);
+        assertSame(snapshot, BitmapPool.getInstance().get(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void resizedLayoutIsCapturedAgainByTheFirstFrame() {
+        mAnimation.prepare(mLayout);
+        Bitmap prepared = mState.mSnapshot;
+        mState.setSize(WIDTH / 2, HEIGHT / 2);
+        mRecorder.start();
+        mRecorder.drawFrame(0.5f);
+        assertNotSame(prepared, mState.mSnapshot);
+        assertEquals(WIDTH / 2, mState.mSnapshot.getWidth());
+        assertEquals(HEIGHT / 2, mState.mSnapshot.getHeight());
+        assertEquals(2, mLayout.getCommitDrawCount());
+        assertSame(prepared, BitmapPool.getInstance().get(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void resizedLayoutIsCapturedAgainByPrepare() {
+        mAnimation.prepare(mLayout);
+        Bitmap prepared = mState.mSnapshot;
+        mState.setSize(WIDTH / 2, HEIGHT / 2);
+        mAnimation.prepare(mLayout);
+        assertEquals(WIDTH / 2, mState.mSnapshot.getWidth());
+        assertSame(prepared, BitmapPool.getInstance().get(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        //preparing an unchanged layout keeps the snapshot.
+        Bitmap snapshot = mState.mSnapshot;
+        mAnimation.prepare(mLayout);
+        assertSame(snapshot, mState.mSnapshot);
+        assertEquals(2, mLayout.getCommitDrawCount());
+    }
+}
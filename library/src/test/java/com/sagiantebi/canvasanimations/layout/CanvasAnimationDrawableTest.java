@@ -0,0 +1,59 @@
+/*
+ * CanvasAnimationDrawableTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.layout;
+
+import android.graphics.Color;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.ColorDrawable;
+import com.sagiantebi.canvasanimations.animations.RevealAnimation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the {@link android.graphics.drawable.Drawable} contract of {@link CanvasAnimationDrawable}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CanvasAnimationDrawableTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void runningAnimationIsTranslucent() {
+        CanvasAnimationDrawable drawable = new CanvasAnimationDrawable(new ColorDrawable(Color.BLACK));
+        drawable.setBounds(0, 0, 100, 100);
+        assertEquals(PixelFormat.OPAQUE, drawable.getOpacity());
+        drawable.loadAnimation(new RevealAnimation());
+        assertEquals(PixelFormat.OPAQUE, drawable.getOpacity());
+        //a reveal leaves part of the bounds uncovered.
+        drawable.getAnimationState().setRunning(true);
+        assertEquals(PixelFormat.TRANSLUCENT, drawable.getOpacity());
+        drawable.getAnimationState().setRunning(false);
+        assertEquals(PixelFormat.OPAQUE, drawable.getOpacity());
+    }
+
+    @Test
+    public void drawableIsNotShared() {
+        CanvasAnimationDrawable drawable = new CanvasAnimationDrawable(new ColorDrawable(Color.BLACK));
+        assertNull(drawable.getConstantState());
+        assertEquals(drawable, drawable.mutate());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * CanvasLayoutDelegateTest.java
+ *
+ * Copyright 2019 Sagi Antebi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sagiantebi.canvasanimations.layout;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+import android.view.ViewGroup;
+import com.sagiantebi.canvasanimations.animations.FoldAnimation;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link CanvasLayoutDelegate#DRAW_STRATEGY_RECORD} strategy, counting the traversals of a child.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CanvasLayoutDelegateTest {
+
+    private final static int SIZE = 100;
+
+    private CanvasAnimationFrameLayout mLayout;
+    private CountingView mChild;
+    private Canvas mCanvas;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mLayout = new CanvasAnimationFrameLayout(context);
+        mChild = new CountingView(context);
+        mLayout.addView(mChild, new ViewGroup.LayoutParams(SIZE, SIZE));
+        mLayout.setDrawStrategy(CanvasAnimationFrameLayout.DRAW_STRATEGY_RECORD);
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, SIZE, SIZE);
+        mCanvas = new Canvas(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void recordedFramesTraverseTheChildrenOnce() {
+        mLayout.loadAnimation(new FoldAnimation());
+        mLayout.getAnimationState().setRunning(true);
+        //two segments are drawn, both replaying the recording.
+        assertEquals(1, drawFrame(0.5f));
+        assertEquals(1, drawFrame(0.5f));
+    }
+
+    @Test
+    public void snapshotFramesAreNotRecorded() {
+        FoldAnimation animation = new FoldAnimation();
+        animation.setSnapshotEnabled(true);
+        mLayout.loadAnimation(animation);
+        mLayout.getAnimationState().setRunning(true);
+        //the first frame renders the snapshot, later frames only draw from it.
+        assertEquals(1, drawFrame(0.5f));
+        assertEquals(0, drawFrame(0.5f));
+    }
+
+    /**
+     * Draws a single frame of the layout
+     * @param step the step to draw
+     * @return the number of times the child was drawn
+     */
+    private int drawFrame(float step) {
+        mChild.mDraws = 0;
+        mLayout.setAnimationStep(step);
+        mLayout.draw(mCanvas);
+        return mChild.mDraws;
+    }
+
+    /**
+     * A {@link View} counting the times it was drawn
+     */
+    private static class CountingView extends View {
+
+        private int mDraws = 0;
+
+        CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            mDraws++;
+        }
+    }
+}
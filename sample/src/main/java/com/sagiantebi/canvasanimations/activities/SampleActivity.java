@@ -43,7 +43,8 @@ public class SampleActivity extends AppCompatActivity implements ImageFragment.O
      * a list of all the animations we want to showcase
      */
     private final List<Class<? extends CanvasAnimation>> mAnimations = Arrays.asList(FoldAnimation.class,
-            RevealAnimation.class, RevealFromBottomAnimation.class, RevealFromCenterAnimation.class, RevealFromTopAnimation.class, ShadesAnimation.class);
+            RevealAnimation.class, RevealFromBottomAnimation.class, RevealFromCenterAnimation.class, RevealFromTopAnimation.class, ShadesAnimation.class,
+            CircularRevealAnimation.class, DiagonalWipeAnimation.class, IrisAnimation.class);
     /**
      * a simple counter - use a different animation each time it advances.
      */